@@ -0,0 +1,146 @@
+package multithreading.race_condition.avoiding_strategy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Every way of counting in this package, measured with JMH: synchronized (SynchronizeTheMethod), ReentrantLock
+ * (RaceConditionWithLock), AtomicInteger (AtomicClassExample), LongAdder, StripedCounter and ThreadLocalCounter.
+ *
+ * - increment: all threads (-t) increment one shared counter as fast as they can;
+ * - incrementAndRead: 3 threads increment while 1 thread reads get()/sum() - a striped or thread-local counter
+ *   pays on the read what it saved on the increment.
+ *
+ * Run: mvn -Pjmh compile exec:exec -Djmh.args="CounterBenchmark -t 8"
+ *      (add e.g. "-p counter=LongAdder,StripedCounter" to pick counters)
+ *
+ * Every counter runs in its own forked JVM, so the JIT only ever sees one implementation behind the interface.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CounterBenchmark {
+
+    interface Counter {
+        void increment();
+
+        long get();
+    }
+
+    @Param({"synchronized", "ReentrantLock", "AtomicInteger", "LongAdder", "StripedCounter", "ThreadLocalCounter"})
+    public String counter;
+
+    private Counter target;
+
+    @Setup
+    public void setUp() {
+        target = create(counter);
+    }
+
+    @Benchmark
+    public void increment() {
+        target.increment();
+    }
+
+    @Benchmark
+    @Group("incrementAndRead")
+    @GroupThreads(3)
+    public void writer() {
+        target.increment();
+    }
+
+    @Benchmark
+    @Group("incrementAndRead")
+    @GroupThreads(1)
+    public long reader() {
+        return target.get(); // returned → consumed by JMH, can't be optimized away
+    }
+
+    private static Counter create(String name) {
+        switch (name) {
+            case "synchronized":
+                return new Counter() {
+                    private long value;
+
+                    public synchronized void increment() {
+                        value++;
+                    }
+
+                    public synchronized long get() {
+                        return value;
+                    }
+                };
+            case "ReentrantLock":
+                return new Counter() {
+                    private final ReentrantLock lock = new ReentrantLock();
+                    private long value;
+
+                    public void increment() {
+                        lock.lock();
+                        try {
+                            value++;
+                        } finally {
+                            lock.unlock();
+                        }
+                    }
+
+                    public long get() {
+                        lock.lock();
+                        try {
+                            return value;
+                        } finally {
+                            lock.unlock();
+                        }
+                    }
+                };
+            case "AtomicInteger": {
+                AtomicInteger value = new AtomicInteger();
+                return counter(value::incrementAndGet, value::get);
+            }
+            case "LongAdder": {
+                LongAdder value = new LongAdder();
+                return counter(value::increment, value::sum);
+            }
+            case "StripedCounter": {
+                StripedCounter value = new StripedCounter();
+                return counter(value::increment, value::sum);
+            }
+            default: {
+                ThreadLocalCounter value = new ThreadLocalCounter();
+                return counter(value::increment, value::sum);
+            }
+        }
+    }
+
+    private static Counter counter(Runnable increment, LongSupplier get) {
+        return new Counter() {
+            public void increment() {
+                increment.run();
+            }
+
+            public long get() {
+                return get.getAsLong();
+            }
+        };
+    }
+}
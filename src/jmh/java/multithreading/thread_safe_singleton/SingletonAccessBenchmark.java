@@ -0,0 +1,82 @@
+package multithreading.thread_safe_singleton;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What getInstance() costs once the instance exists, measured with JMH: a static final field (EagerSingleton,
+ * BillPugh holder), SynchronizedSingleton (monitor on every call), DoubleCheckedSingleton (volatile read),
+ * Lazy (plain read) and LazyRegistry (map lookup + plain read).
+ *
+ * Run: mvn -Pjmh compile exec:exec -Djmh.args="SingletonAccessBenchmark -t 4"
+ *
+ * With more threads (-t) SynchronizedSingleton gets slower, because every call takes the same monitor. The
+ * other variants don't, because their reads never write to shared memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SingletonAccessBenchmark {
+
+    private static final Lazy<EagerSingleton> LAZY = Lazy.of(EagerSingleton::getInstance);
+    private static final LazyRegistry<String, EagerSingleton> REGISTRY = new LazyRegistry<>(key -> EagerSingleton.getInstance());
+    private static final Lazy<EagerSingleton> REGISTRY_HANDLE = REGISTRY.lazy("db");
+
+    // Create every instance up front: only the fast path after initialization is measured
+    @Setup
+    public void initialize() {
+        BillPughSingletonLogger.getInstance();
+        SynchronizedSingleton.getInstance();
+        DoubleCheckedSingleton.getInstance();
+        LAZY.get();
+        REGISTRY.get("db");
+    }
+
+    @Benchmark
+    public EagerSingleton eagerFinalField() {
+        return EagerSingleton.getInstance();
+    }
+
+    @Benchmark
+    public BillPughSingletonLogger billPughHolder() {
+        return BillPughSingletonLogger.getInstance();
+    }
+
+    @Benchmark
+    public SynchronizedSingleton synchronizedMethod() {
+        return SynchronizedSingleton.getInstance();
+    }
+
+    @Benchmark
+    public DoubleCheckedSingleton doubleChecked() {
+        return DoubleCheckedSingleton.getInstance();
+    }
+
+    @Benchmark
+    public EagerSingleton lazyGet() {
+        return LAZY.get();
+    }
+
+    @Benchmark
+    public EagerSingleton lazyRegistryGet() {
+        return REGISTRY.get("db");
+    }
+
+    @Benchmark
+    public EagerSingleton lazyRegistryHandle() {
+        return REGISTRY_HANDLE.get();
+    }
+}
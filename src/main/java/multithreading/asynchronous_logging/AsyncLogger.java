@@ -1,10 +1,14 @@
 package multithreading.asynchronous_logging;
 
+import multithreading.metrics.MetricsRegistry;
+import multithreading.metrics.MetricsSource;
+
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
 
-public class AsyncLogger {
+public class AsyncLogger implements MetricsSource {
     /**
      * A thread-safe queue where producer threads put log messages.
      *
@@ -26,6 +30,11 @@ public class AsyncLogger {
      */
     private final String logFile = "logs.txt";
 
+    /**
+     * Messages written to the file. Only the consumer thread increments it, so it never contends.
+     */
+    private final LongAdder written = new LongAdder();
+
     /**
      * Contructor:
      * When the AsyncLogger is instantiated, it immediately starts the logger thread using submit(), passing the method reference consumeLogs.
@@ -150,6 +159,7 @@ public class AsyncLogger {
                 if (msg != null) {
                     writer.write(msg + "\n");
                     writer.flush(); // ensure it reaches disk
+                    written.increment();
                 }
             }
         } catch (IOException | InterruptedException e) {
@@ -157,6 +167,16 @@ public class AsyncLogger {
         }
     }
 
+    /**
+     * Queue depth is read at scrape time (LinkedBlockingQueue keeps its size in an AtomicInteger), so log()
+     * pays nothing for the metrics.
+     */
+    @Override
+    public void bindTo(MetricsRegistry registry, String... labels) {
+        registry.gauge("logger_queue_depth", "Messages waiting to be written", logQueue::size, labels);
+        registry.counter("logger_messages_written_total", "Messages written to the log file", written::sum, labels);
+    }
+
     public void shutdown() {
         isRunning = false;
         loggerExecutor.shutdown();
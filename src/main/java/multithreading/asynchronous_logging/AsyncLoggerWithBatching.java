@@ -1,16 +1,24 @@
 package multithreading.asynchronous_logging;
 
+import multithreading.metrics.MetricsRegistry;
+import multithreading.metrics.MetricsSource;
+
 import java.io.*;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
-public class AsyncLoggerWithBatching {
+public class AsyncLoggerWithBatching implements MetricsSource {
     private final BlockingQueue<String> logQueue = new LinkedBlockingQueue<>();
     private final ExecutorService loggerExecutor = Executors.newSingleThreadExecutor();
     private final File logFile = new File("async-logs.txt");
     private final AtomicBoolean isRunning = new AtomicBoolean(true);
 
+    // Only the consumer thread updates these, so they never contend
+    private final LongAdder written = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
     // Batching params
     private static final int BATCH_SIZE = 5;
     private static final int BATCH_TIME_MS = 2000;
@@ -43,26 +51,39 @@ public class AsyncLoggerWithBatching {
 
                 long now = System.currentTimeMillis();
                 if (buffer.size() >= BATCH_SIZE || (now - lastFlushTime >= BATCH_TIME_MS && !buffer.isEmpty())) {
-                    for (String line : buffer) {
-                        writer.write(line + "\n");
-                    }
-                    writer.flush();
-                    buffer.clear();
+                    flush(writer, buffer);
                     lastFlushTime = now;
                 }
             }
 
             // Flush remaining logs on shutdown
-            for (String line : buffer) {
-                writer.write(line + "\n");
+            if (!buffer.isEmpty()) {
+                flush(writer, buffer);
             }
-            writer.flush();
 
         } catch (IOException | InterruptedException e) {
             e.printStackTrace();
         }
     }
 
+    private void flush(FileWriter writer, List<String> buffer) throws IOException {
+        for (String line : buffer) {
+            writer.write(line + "\n");
+        }
+        writer.flush();
+        written.add(buffer.size());
+        batches.increment();
+        buffer.clear();
+    }
+
+    @Override
+    public void bindTo(MetricsRegistry registry, String... labels) {
+        registry.gauge("logger_queue_depth", "Messages waiting to be written", logQueue::size, labels);
+        registry.counter("logger_messages_written_total", "Messages written to the log file", written::sum, labels);
+        registry.counter("logger_batches_flushed_total", "Batches written to the log file (messages / batches = average batch size)",
+                batches::sum, labels);
+    }
+
     private String formatLog(String message) {
         return "[" + Thread.currentThread().getName() + "][" + System.currentTimeMillis() + "] " + message;
     }
@@ -0,0 +1,153 @@
+package multithreading.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntFunction;
+
+/**
+ * The one fixed-time, multi-threaded harness behind the main() benchmarks of this project.
+ *
+ * Every benchmark needs the same skeleton: start N workers, release them at once, let them run until a
+ * deadline, and sum up what they did. Written by hand each time it drifts (when is the clock read, who counts,
+ * is the result published safely?), so it lives here once:
+ *
+ * ✅ How a run works:
+ * 1. Every worker thread calls perThread.apply(index) FIRST - per-thread state (ThreadLocalRandom, a histogram,
+ *    a slot in a result array) is created on the thread that uses it, outside the measurement.
+ * 2. All workers wait at a start gate; the deadline is set just before the gate opens, and the gate's
+ *    countDown() happens-before every await(), so the workers see it without a volatile.
+ * 3. A worker calls its Batch until the deadline. A batch does a few operations (typically BATCH_SIZE) and
+ *    returns how many - nanoTime() is read once per batch, not once per operation. A worker that only gets
+ *    scheduled after the deadline runs no batch at all.
+ * 4. run() returns once every worker has finished (Thread.join), so whatever the workers wrote into the
+ *    caller's arrays is visible to the caller afterwards. If a batch threw, run() throws too (a benchmark
+ *    with a failing worker measures nothing useful).
+ *
+ * Results a benchmark reads back (checksums of reads) go through consume(), so the JIT can't drop the work.
+ *
+ * ⚠️ Still no JMH: warm-up is whatever the caller runs first, so compare implementations with each other, not
+ * with absolute figures. Benchmarks that only need a number per operation belong in src/jmh/java (-Pjmh).
+ */
+public final class BenchmarkHarness {
+
+    public static final int BATCH_SIZE = 256;
+
+    private static volatile long sink;
+
+    /**
+     * Part of one worker's loop: performs some operations and returns how many.
+     */
+    @FunctionalInterface
+    public interface Batch {
+        long run() throws Exception;
+    }
+
+    /**
+     * Outcome of one run.
+     */
+    public static final class Result {
+        private final long operations;
+        private final long elapsedNanos;
+
+        private Result(long operations, long elapsedNanos) {
+            this.operations = operations;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long operations() {
+            return operations;
+        }
+
+        public long elapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public long perSecond() {
+            return operations * 1_000_000_000L / Math.max(1, elapsedNanos);
+        }
+    }
+
+    private BenchmarkHarness() {
+    }
+
+    /**
+     * Runs `threads` workers for `millis` ms; each repeats the batch perThread.apply(workerIndex) gave it.
+     */
+    public static Result run(int threads, long millis, IntFunction<Batch> perThread) throws InterruptedException {
+        return run(threads, millis, "worker-", 0, perThread);
+    }
+
+    /**
+     * Same, with worker names (namePrefix + index) and a stack size (0 = the JVM default) - for benchmarks that
+     * start thousands of threads.
+     */
+    public static Result run(int threads, long millis, String namePrefix, long stackSize, IntFunction<Batch> perThread)
+            throws InterruptedException {
+        CountDownLatch startGate = new CountDownLatch(1);
+        long[] counts = new long[threads];
+        long[] deadline = new long[1];
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            final int index = t;
+            Thread worker = new Thread(null, () -> {
+                Batch batch = perThread.apply(index);
+                long n = 0;
+                try {
+                    startGate.await();
+                    long end = deadline[0];
+                    while (System.nanoTime() < end) {
+                        n += batch.run();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    counts[index] = n;
+                }
+            }, namePrefix + t, stackSize);
+            worker.setDaemon(true); // a stuck worker must not keep the JVM alive
+            workers.add(worker);
+            worker.start();
+        }
+
+        long start = System.nanoTime();
+        deadline[0] = start + TimeUnit.MILLISECONDS.toNanos(millis);
+        startGate.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (failure.get() != null) {
+            throw new IllegalStateException("A benchmark worker failed", failure.get());
+        }
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return new Result(total, elapsed);
+    }
+
+    /**
+     * Keeps a value alive, so that the JIT can't drop the computation that produced it. Call it once per batch.
+     */
+    public static void consume(long value) {
+        sink += value;
+    }
+
+    /**
+     * 1, 2, 4 ... up to max (at least 1).
+     */
+    public static int[] powersOfTwo(int max) {
+        int size = 32 - Integer.numberOfLeadingZeros(Math.max(1, max));
+        int[] counts = new int[size];
+        for (int i = 0; i < size; i++) {
+            counts[i] = 1 << i;
+        }
+        return counts;
+    }
+}
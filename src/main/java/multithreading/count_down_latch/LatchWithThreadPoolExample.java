@@ -1,5 +1,7 @@
 package multithreading.count_down_latch;
 
+import multithreading.metrics.LogLinearHistogram;
+
 import java.util.concurrent.*;
 
 public class LatchWithThreadPoolExample {
@@ -9,8 +11,12 @@ public class LatchWithThreadPoolExample {
         CountDownLatch latch = new CountDownLatch(numTasks);
         ExecutorService executor = Executors.newFixedThreadPool(3);
 
+        // Submit → done, per task: with 3 threads for 5 tasks, part of it is time spent waiting in the queue
+        LogLinearHistogram latency = LogLinearHistogram.forLatencies(1, TimeUnit.MINUTES, 2);
+
         for (int i = 1; i <= numTasks; i++) {
             final int taskId = i;
+            final long submittedAt = System.nanoTime();
             executor.submit(() -> {
                 System.out.println("Task " + taskId + " started.");
                 try {
@@ -19,6 +25,7 @@ public class LatchWithThreadPoolExample {
                     Thread.currentThread().interrupt();
                 }
                 System.out.println("Task " + taskId + " done.");
+                latency.record(System.nanoTime() - submittedAt); // before countDown(), so await() sees it
                 latch.countDown();
             });
         }
@@ -26,6 +33,10 @@ public class LatchWithThreadPoolExample {
         System.out.println("Main thread waiting for all tasks...");
         latch.await();  // Wait for all tasks to finish
         System.out.println("✅ All tasks done. Shutting down executor.");
+        LogLinearHistogram.Snapshot snapshot = latency.snapshot();
+        System.out.printf("Task latency: p50=%dms p99=%dms p99.9=%dms max=%dms%n",
+                TimeUnit.NANOSECONDS.toMillis(snapshot.percentile(50)), TimeUnit.NANOSECONDS.toMillis(snapshot.percentile(99)),
+                TimeUnit.NANOSECONDS.toMillis(snapshot.percentile(99.9)), TimeUnit.NANOSECONDS.toMillis(snapshot.max()));
         executor.shutdown();
     }
 }
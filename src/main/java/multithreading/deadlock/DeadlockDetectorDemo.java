@@ -0,0 +1,101 @@
+package multithreading.deadlock;
+
+import multithreading.deadlock.avoiding_strategy.RankedLock;
+import multithreading.reader_write_problem.PolicyReadWriteLock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+public class DeadlockDetectorDemo {
+
+    public static void main(String[] args) throws InterruptedException {
+        LockTracker.enable();
+        try (DeadlockDetector detector = new DeadlockDetector(200, DeadlockDetector.VictimPolicy.YOUNGEST)) {
+
+            // 1. DeadLockDemo with RankedLocks taken interruptibly: the JVM sees the cycle, the victim gives up
+            RankedLock lock1 = new RankedLock("Lock1");
+            RankedLock lock2 = new RankedLock("Lock2");
+            Thread t1 = new Thread(() -> lockBoth(lock1, lock2), "Thread 1");
+            Thread t2 = new Thread(() -> lockBoth(lock2, lock1), "Thread 2");
+            t1.start();
+            t2.start();
+            t1.join();
+            t2.join();
+            System.out.println("Both threads finished - the deadlock was broken.\n");
+
+            // 2. Readers of two PolicyReadWriteLocks each wanting to WRITE the other one. Nobody owns the locks
+            //    in the JVM's eyes (the writers wait on a Condition), only LockTracker knows who waits for whom.
+            //    Their waits are uninterruptible, so these two threads stay stuck (daemon threads).
+            PolicyReadWriteLock accounts = new PolicyReadWriteLock(PolicyReadWriteLock.Policy.PHASE_FAIR);
+            PolicyReadWriteLock ledger = new PolicyReadWriteLock(PolicyReadWriteLock.Policy.PHASE_FAIR);
+            CountDownLatch bothReading = new CountDownLatch(2);
+            startDaemon("Reader A", () -> readThenWrite(accounts, ledger, bothReading));
+            startDaemon("Reader B", () -> readThenWrite(ledger, accounts, bothReading));
+            Thread.sleep(1000);
+            System.out.println(detector);
+        }
+
+        // 3. Cost of one scan with many live threads, projected to a 1 second interval
+        LockTracker.disable();
+        List<Thread> idle = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            idle.add(startDaemon("idle-" + i, () -> LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(60))));
+        }
+        try (DeadlockDetector detector = new DeadlockDetector(TimeUnit.HOURS.toMillis(1), DeadlockDetector.VictimPolicy.NONE,
+                deadlock -> { })) {
+            for (int i = 0; i < 200; i++) {
+                detector.scan();
+            }
+            long cpuPerScan = detector.averageScanCpuNanos();
+            System.out.printf("%n%d threads alive: one scan costs %,dns CPU (%,dns wall) = %.4f%% of a core at a 1s interval%n",
+                    Thread.activeCount(), cpuPerScan, detector.averageScanWallNanos(), 100.0 * cpuPerScan / 1e9);
+        }
+        idle.forEach(Thread::interrupt);
+    }
+
+    private static void lockBoth(RankedLock first, RankedLock second) {
+        String name = Thread.currentThread().getName();
+        try {
+            first.lockInterruptibly();
+            try {
+                System.out.println(name + ": Holding " + first.name() + "...");
+                Thread.sleep(100);
+                System.out.println(name + ": Waiting for " + second.name() + "...");
+                second.lockInterruptibly();
+                try {
+                    System.out.println(name + ": Acquired " + second.name() + "!");
+                } finally {
+                    second.unlock();
+                }
+            } finally {
+                first.unlock();
+            }
+        } catch (InterruptedException e) {
+            System.out.println(name + ": Interrupted by the deadlock detector, releasing my locks");
+        }
+    }
+
+    private static void readThenWrite(PolicyReadWriteLock read, PolicyReadWriteLock write, CountDownLatch bothReading) {
+        read.lockRead();
+        try {
+            bothReading.countDown();
+            bothReading.await();
+            write.lockWrite();
+            write.unlockWrite();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            read.unlockRead();
+        }
+    }
+
+    private static Thread startDaemon(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+}
@@ -0,0 +1,130 @@
+package multithreading.deadlock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Who holds and who waits for the project's own lock wrappers (RankedLock, PolicyReadWriteLock).
+ *
+ * The JVM only sees deadlocks on monitors and on locks that have a single exclusive owner. A lock built as a
+ * monitor + Condition (like PolicyReadWriteLock) is invisible to it: a blocked writer just waits on a Condition,
+ * and which READERS it is waiting for is only known to the lock itself. The wrappers therefore report
+ * waiting(lock) / acquired(lock) / released(lock) here, and DeadlockDetector builds its own wait-for graph
+ * from that.
+ *
+ * Off by default: while disabled every call is a single volatile read. Locks taken before enable() are not
+ * known to the tracker.
+ */
+public final class LockTracker {
+
+    private static volatile boolean enabled;
+
+    private static final ConcurrentHashMap<Thread, ThreadState> threads = new ConcurrentHashMap<>();
+    private static final ThreadLocal<ThreadState> current = ThreadLocal.withInitial(() -> {
+        ThreadState state = new ThreadState(Thread.currentThread());
+        threads.put(state.thread, state);
+        return state;
+    });
+
+    private static final class ThreadState {
+        final Thread thread;
+        volatile Object waitingFor;
+        final List<Object> held = Collections.synchronizedList(new ArrayList<>()); // one entry per hold
+
+        ThreadState(Thread thread) {
+            this.thread = thread;
+        }
+    }
+
+    private LockTracker() {
+    }
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static void disable() {
+        enabled = false;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void waiting(Object lock) {
+        if (enabled) {
+            current.get().waitingFor = lock;
+        }
+    }
+
+    // Gave up waiting (timeout, interrupt)
+    public static void stoppedWaiting() {
+        if (enabled) {
+            current.get().waitingFor = null;
+        }
+    }
+
+    public static void acquired(Object lock) {
+        if (enabled) {
+            ThreadState state = current.get();
+            state.waitingFor = null;
+            state.held.add(lock);
+        }
+    }
+
+    public static void released(Object lock) {
+        if (enabled) {
+            List<Object> held = current.get().held;
+            synchronized (held) {
+                for (int i = held.size() - 1; i >= 0; i--) {
+                    if (held.get(i) == lock) {
+                        held.remove(i);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Waiting thread → the lock it waits for (copy).
+     */
+    static Map<Thread, Object> waitingThreads() {
+        Map<Thread, Object> waiting = new IdentityHashMap<>();
+        for (ThreadState state : threads.values()) {
+            Object lock = state.waitingFor;
+            if (lock != null) {
+                waiting.put(state.thread, lock);
+            }
+        }
+        return waiting;
+    }
+
+    /**
+     * Lock → the threads holding it (copy). Also forgets threads that have terminated.
+     */
+    static Map<Object, List<Thread>> owners() {
+        Map<Object, List<Thread>> owners = new IdentityHashMap<>();
+        threads.values().removeIf(state -> !state.thread.isAlive());
+        for (ThreadState state : threads.values()) {
+            synchronized (state.held) {
+                for (Object lock : state.held) {
+                    List<Thread> holders = owners.computeIfAbsent(lock, l -> new ArrayList<>());
+                    if (!holders.contains(state.thread)) {
+                        holders.add(state.thread);
+                    }
+                }
+            }
+        }
+        return owners;
+    }
+
+    static int heldCount(Thread thread) {
+        ThreadState state = threads.get(thread);
+        return state == null ? 0 : state.held.size();
+    }
+}
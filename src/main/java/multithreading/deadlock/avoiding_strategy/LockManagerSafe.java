@@ -1,35 +1,36 @@
 package multithreading.deadlock.avoiding_strategy;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.concurrent.locks.ReentrantLock;
-
 public class LockManagerSafe {
+
+    // ONE manager for the whole application: its plan cache is only useful if every LockManager shares it
+    private static final OrderedLockManager ORDERED_LOCKS = new OrderedLockManager();
+
     static class LockManager {
-        private final List<ReentrantLock> locks;
+        private final OrderedLockManager.Plan plan;
 
-        public LockManager(ReentrantLock... locks) {
-            this.locks = Arrays.asList(locks);
+        public LockManager(RankedLock... locks) {
+            // Sort ONCE, by a unique rank (identityHashCode can collide → two threads could sort differently)
+            this.plan = ORDERED_LOCKS.plan(locks);
         }
 
         public void lockAll() {
-            // Sort to acquire locks in an order ....
-            locks.stream()
-                    .sorted((a, b) -> Integer.compare(System.identityHashCode(a), System.identityHashCode(b)))
-                    .forEach(lock -> lock.lock());
-
+            // Acquire locks in the same global order ....
+            plan.lockAll();
         }
 
         public void unlockAll() {
-            locks.forEach(ReentrantLock::unlock);
+            plan.unlockAll();
         }
     }
 
     public static void main(String[] args) {
-        ReentrantLock lock1 = new ReentrantLock();
-        ReentrantLock lock2 = new ReentrantLock();
+        RankedLock lock1 = new RankedLock("lock1");
+        RankedLock lock2 = new RankedLock("lock2");
 
         LockManager manager = new LockManager(lock1, lock2);
+        LockManager sameLocks = new LockManager(lock1, lock2); // reuses the cached plan, no second sort
+        System.out.println("Cached plans: " + ORDERED_LOCKS.cachedPlans() + ", same plan reused: "
+                + (manager.plan == sameLocks.plan));
 
         Runnable task = () -> {
             manager.lockAll();
@@ -0,0 +1,145 @@
+package multithreading.deadlock.avoiding_strategy;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * All-or-nothing acquisition of several locks with tryLock() + a pluggable RETRY POLICY (TryLockSafe, reusable).
+ *
+ * TryLockSafe waits a fixed time between attempts. Two threads that failed together then retry together, fail
+ * together again ... in lock-step: a LIVELOCK - nobody is blocked, nobody makes progress. What breaks the
+ * lock-step is waiting a different, growing time:
+ *
+ * fixed(d)                  → always d (TryLockSafe's behaviour, for comparison).
+ * exponential(base, cap)    → base, 2*base, 4*base ... up to cap, each with "full jitter" (random in [0, d]).
+ * decorrelatedJitter(b, c)  → random between base and 3x the previous delay, capped - spreads retries well
+ *                             without the synchronized doubling steps.
+ * spinThenPark(n, b, c)     → the first n retries only spin (Thread.onSpinWait(), no syscall: the holder is
+ *                             probably about to finish a tiny critical section), then exponential parking.
+ *
+ * Locks are tried in the order given, without blocking; if one is busy, the ones already taken are released
+ * before waiting. Counted: attempts that had to be retried, and LIVELOCK EPISODES - runs of at least
+ * LIVELOCK_RUN consecutive attempts that each got part of the set and then had to give it back.
+ */
+public class MultiLockAcquirer {
+
+    private static final int LIVELOCK_RUN = 3;
+
+    /**
+     * Delay before the next attempt. 0 = retry after a single spin-wait hint. Must be thread safe (stateless).
+     */
+    public interface RetryPolicy {
+        long nextDelayNanos(int failedAttempts, long previousDelayNanos);
+    }
+
+    public static RetryPolicy fixed(long delay, TimeUnit unit) {
+        long nanos = unit.toNanos(delay);
+        return (failedAttempts, previous) -> nanos;
+    }
+
+    public static RetryPolicy exponential(long base, long cap, TimeUnit unit) {
+        long baseNanos = unit.toNanos(base);
+        long capNanos = unit.toNanos(cap);
+        return (failedAttempts, previous) -> {
+            int shift = Math.min(Math.max(failedAttempts - 1, 0), 62);
+            // base << shift saturates at the cap instead of overflowing to a negative delay
+            long delay = baseNanos > capNanos >>> shift ? capNanos : baseNanos << shift;
+            return ThreadLocalRandom.current().nextLong(delay + 1);
+        };
+    }
+
+    public static RetryPolicy decorrelatedJitter(long base, long cap, TimeUnit unit) {
+        long baseNanos = unit.toNanos(base);
+        long capNanos = unit.toNanos(cap);
+        return (failedAttempts, previous) -> {
+            long upper = Math.max(baseNanos, Math.min(capNanos, previous * 3));
+            return ThreadLocalRandom.current().nextLong(baseNanos, upper + 1);
+        };
+    }
+
+    public static RetryPolicy spinThenPark(int spins, long base, long cap, TimeUnit unit) {
+        RetryPolicy parking = exponential(base, cap, unit);
+        return (failedAttempts, previous) -> failedAttempts <= spins ? 0 : parking.nextDelayNanos(failedAttempts - spins, previous);
+    }
+
+    private final RetryPolicy policy;
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder livelockEpisodes = new LongAdder();
+
+    public MultiLockAcquirer(RetryPolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * @return true with ALL locks held, false (holding none) if that didn't succeed within the timeout
+     */
+    public boolean acquireAll(long timeout, TimeUnit unit, Lock... locks) throws InterruptedException {
+        long deadline = 0;
+        long delay = 0;
+        int failedAttempts = 0;
+        int partialRun = 0; // consecutive attempts that took some locks and had to give them back
+        while (true) {
+            int reached = tryAll(locks);
+            if (reached == locks.length) {
+                acquisitions.increment();
+                return true;
+            }
+            partialRun = reached > 0 ? partialRun + 1 : 0;
+            if (partialRun == LIVELOCK_RUN) {
+                livelockEpisodes.increment();
+            }
+            if (deadline == 0) {
+                deadline = System.nanoTime() + unit.toNanos(timeout);
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            retries.increment();
+            delay = policy.nextDelayNanos(++failedAttempts, delay);
+            if (delay <= 0) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(this, Math.min(delay, remaining));
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    // locks.length = all taken; otherwise nothing is held and the result says how far we got
+    private static int tryAll(Lock[] locks) {
+        for (int i = 0; i < locks.length; i++) {
+            if (!locks[i].tryLock()) {
+                for (int j = i - 1; j >= 0; j--) {
+                    locks[j].unlock();
+                }
+                return i; // how many we had before giving them back
+            }
+        }
+        return locks.length;
+    }
+
+    public void releaseAll(Lock... locks) {
+        for (int i = locks.length - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+
+    public long acquisitions() {
+        return acquisitions.sum();
+    }
+
+    public long retries() {
+        return retries.sum();
+    }
+
+    public long livelockEpisodes() {
+        return livelockEpisodes.sum();
+    }
+}
@@ -0,0 +1,102 @@
+package multithreading.deadlock.avoiding_strategy;
+
+import multithreading.benchmark.BenchmarkHarness;
+import multithreading.metrics.LogLinearHistogram;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Retry policies under contention: every operation takes 2 of 4 locks, half of the threads in the opposite order
+ * (the TryLockSafe situation), holds them for ~20µs (a short blocking call, e.g. a cache lookup) and releases
+ * them. The blocking call makes the locks contended even on a machine with few cores.
+ *
+ * Per policy and thread count: successful acquisitions/sec, latency of a successful acquireAll() (p50/p99/max),
+ * retries per acquisition and livelock episodes (see MultiLockAcquirer).
+ *
+ * Usage: MultiLockAcquirerBenchmark [millisPerRun]
+ */
+public class MultiLockAcquirerBenchmark {
+
+    private static final int LOCKS = 4;
+    private static final long HOLD_NANOS = 20_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        String[] names = {"fixed 1ms", "exponential", "decorrelated jitter", "spin then park"};
+        MultiLockAcquirer.RetryPolicy[] policies = {
+                MultiLockAcquirer.fixed(1, TimeUnit.MILLISECONDS),
+                MultiLockAcquirer.exponential(1, 1_000, TimeUnit.MICROSECONDS),
+                MultiLockAcquirer.decorrelatedJitter(1, 1_000, TimeUnit.MICROSECONDS),
+                MultiLockAcquirer.spinThenPark(16, 1, 1_000, TimeUnit.MICROSECONDS)
+        };
+        int maxThreads = Math.max(16, Runtime.getRuntime().availableProcessors() * 2);
+
+        System.out.printf("%-20s %8s %12s %10s %10s %12s %13s %10s%n",
+                "policy", "threads", "ops/sec", "p50", "p99", "max", "retries/op", "livelocks");
+        for (int p = 0; p < policies.length; p++) {
+            for (int threads = 2; threads <= maxThreads; threads *= 2) {
+                run(policies[p], threads, millis / 5, null); // warm-up
+                run(policies[p], threads, millis, names[p]);
+            }
+        }
+    }
+
+    private static void run(MultiLockAcquirer.RetryPolicy policy, int threads, long millis, String name)
+            throws InterruptedException {
+        Lock[] locks = new Lock[LOCKS];
+        for (int i = 0; i < LOCKS; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        MultiLockAcquirer acquirer = new MultiLockAcquirer(policy);
+        LogLinearHistogram[] latencies = new LogLinearHistogram[threads];
+        for (int t = 0; t < threads; t++) {
+            latencies[t] = LogLinearHistogram.forLatencies(10, TimeUnit.SECONDS, 2);
+        }
+
+        // One batch = one attempt; only successful acquisitions count
+        BenchmarkHarness.Result result = BenchmarkHarness.run(threads, millis, id -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            LogLinearHistogram latency = latencies[id];
+            return () -> {
+                int a = random.nextInt(LOCKS);
+                int b = (a + 1 + random.nextInt(LOCKS - 1)) % LOCKS;
+                Lock first = locks[id % 2 == 0 ? Math.min(a, b) : Math.max(a, b)];
+                Lock second = locks[id % 2 == 0 ? Math.max(a, b) : Math.min(a, b)];
+                long start = System.nanoTime();
+                if (!acquirer.acquireAll(100, TimeUnit.MILLISECONDS, first, second)) {
+                    return 0;
+                }
+                long acquired = System.nanoTime();
+                try {
+                    BenchmarkHarness.consume(acquired);
+                    LockSupport.parkNanos(HOLD_NANOS);
+                } finally {
+                    acquirer.releaseAll(first, second);
+                }
+                latency.record(acquired - start); // every acquisition, nothing capped
+                return 1;
+            };
+        });
+        if (name == null) {
+            return;
+        }
+
+        long total = result.operations();
+        LogLinearHistogram.Snapshot all = latencies[0].snapshot();
+        for (int t = 1; t < threads; t++) {
+            all = all.merge(latencies[t].snapshot());
+        }
+        if (total == 0) {
+            System.out.printf("%-20s %8d  no successful acquisition%n", name, threads);
+            return;
+        }
+        System.out.printf("%-20s %8d %,12d %8.1fus %8.1fus %10.1fus %13.2f %,10d%n", name, threads,
+                result.perSecond(), all.percentile(50) / 1e3, all.percentile(99) / 1e3,
+                all.max() / 1e3, (double) acquirer.retries() / Math.max(1, acquirer.acquisitions()),
+                acquirer.livelockEpisodes());
+    }
+}
@@ -0,0 +1,160 @@
+package multithreading.deadlock.avoiding_strategy;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Locks any set of RankedLocks without deadlock: always in ascending rank order (one global order = no
+ * circular wait), released in reverse.
+ *
+ * ✅ Plans are computed once:
+ * plan(locks...) sorts and de-duplicates the set ONCE and caches the resulting Plan under the set as given
+ * (same locks in the same argument order → same cached Plan, no sorting, no stream, no comparator lambda).
+ * Callers that reuse a set a lot can also just keep the Plan.
+ *
+ * ✅ Timed all-or-nothing:
+ * tryLockAll(timeout) takes the locks in order under ONE deadline for the whole set; if any lock isn't free in
+ * time, the ones already taken are released again and the call returns false - the caller never ends up
+ * holding half of the set.
+ *
+ * Wait times are recorded per lock (see RankedLock#waitReport()).
+ */
+public class OrderedLockManager {
+
+    private static final Comparator<RankedLock> BY_RANK = Comparator.comparingLong(RankedLock::rank);
+
+    private final ConcurrentHashMap<LockSet, Plan> plans = new ConcurrentHashMap<>();
+    private final int maxCachedPlans;
+
+    public OrderedLockManager() {
+        this(100_000);
+    }
+
+    public OrderedLockManager(int maxCachedPlans) {
+        this.maxCachedPlans = maxCachedPlans;
+    }
+
+    /**
+     * The locks of one set, in the order they have to be taken.
+     */
+    public static final class Plan {
+        private final RankedLock[] ordered;
+
+        private Plan(RankedLock[] locks) {
+            RankedLock[] sorted = locks.clone();
+            Arrays.sort(sorted, BY_RANK);
+            int distinct = 0;
+            for (RankedLock lock : sorted) {
+                if (distinct == 0 || sorted[distinct - 1] != lock) {
+                    sorted[distinct++] = lock; // a lock passed twice is taken once
+                }
+            }
+            this.ordered = Arrays.copyOf(sorted, distinct);
+        }
+
+        public void lockAll() {
+            for (RankedLock lock : ordered) {
+                lock.lock();
+            }
+        }
+
+        /**
+         * All locks within the timeout, or none.
+         */
+        public boolean tryLockAll(long timeout, TimeUnit unit) throws InterruptedException {
+            long deadline = 0; // read the clock only once a lock is actually busy
+            for (int i = 0; i < ordered.length; i++) {
+                if (ordered[i].tryLock()) {
+                    continue;
+                }
+                if (deadline == 0) {
+                    deadline = System.nanoTime() + unit.toNanos(timeout);
+                }
+                boolean locked = false;
+                try {
+                    locked = ordered[i].tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                } finally {
+                    if (!locked) {
+                        unlock(i); // timed out or interrupted: give back what we have
+                    }
+                }
+                if (!locked) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public void unlockAll() {
+            unlock(ordered.length);
+        }
+
+        // Releases the first `count` locks, in reverse order
+        private void unlock(int count) {
+            for (int i = count - 1; i >= 0; i--) {
+                ordered[i].unlock();
+            }
+        }
+
+        public int size() {
+            return ordered.length;
+        }
+
+        @Override
+        public String toString() {
+            return "Plan" + Arrays.toString(ordered);
+        }
+    }
+
+    // Identity of a lock set as passed by the caller (RankedLock doesn't override equals → identity)
+    private static final class LockSet {
+        private final RankedLock[] locks;
+        private final int hash;
+
+        LockSet(RankedLock[] locks) {
+            this.locks = locks;
+            this.hash = Arrays.hashCode(locks);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof LockSet && Arrays.equals(locks, ((LockSet) other).locks);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    public Plan plan(RankedLock... locks) {
+        LockSet key = new LockSet(locks);
+        Plan plan = plans.get(key);
+        if (plan == null) {
+            plan = new Plan(locks);
+            if (plans.size() < maxCachedPlans) {
+                Plan raced = plans.putIfAbsent(new LockSet(locks.clone()), plan); // don't keep the caller's array
+                plan = raced != null ? raced : plan;
+            }
+        }
+        return plan;
+    }
+
+    public void lockAll(RankedLock... locks) {
+        plan(locks).lockAll();
+    }
+
+    public boolean tryLockAll(long timeout, TimeUnit unit, RankedLock... locks) throws InterruptedException {
+        return plan(locks).tryLockAll(timeout, unit);
+    }
+
+    public void unlockAll(RankedLock... locks) {
+        plan(locks).unlockAll();
+    }
+
+    public int cachedPlans() {
+        return plans.size();
+    }
+}
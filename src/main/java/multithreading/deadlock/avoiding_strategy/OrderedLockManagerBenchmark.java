@@ -0,0 +1,163 @@
+package multithreading.deadlock.avoiding_strategy;
+
+import multithreading.benchmark.BenchmarkHarness;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Multi-account transfers: every operation locks 2-8 account locks, moves money between them and unlocks.
+ *
+ * The operations come from a fixed set of "routes" (lock sets), like a real transfer workload where the same
+ * account combinations come back again and again. Compared:
+ * - identityHashCode sort → the old LockManagerSafe: stream + comparator lambda on every call;
+ * - manager.lockAll(set)  → OrderedLockManager, plan looked up in its cache;
+ * - plan.lockAll()        → the caller keeps the Plan;
+ * - plan.tryLockAll(1ms)  → timed all-or-nothing, failed attempts counted and retried.
+ *
+ * Afterwards the balances must add up to the starting total, and the most waited-on locks are listed.
+ *
+ * Usage: OrderedLockManagerBenchmark [millisPerRun] [accounts]
+ */
+public class OrderedLockManagerBenchmark {
+
+    private static final int ROUTES = 4096;
+    private static final long INITIAL_BALANCE = 1_000;
+
+    private interface Strategy {
+        void lockAll(int route);
+
+        void unlockAll(int route);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        int accounts = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+
+        RankedLock[] locks = new RankedLock[accounts];
+        for (int i = 0; i < accounts; i++) {
+            locks[i] = new RankedLock("account-" + i);
+        }
+        long[] balances = new long[accounts];
+        Arrays.fill(balances, INITIAL_BALANCE);
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        RankedLock[][] routes = new RankedLock[ROUTES][];
+        int[][] routeAccounts = new int[ROUTES][];
+        for (int r = 0; r < ROUTES; r++) {
+            int[] ids = random.ints(0, accounts).distinct().limit(random.nextInt(2, 9)).toArray();
+            routeAccounts[r] = ids;
+            routes[r] = Arrays.stream(ids).mapToObj(id -> locks[id]).toArray(RankedLock[]::new);
+        }
+
+        OrderedLockManager manager = new OrderedLockManager();
+        OrderedLockManager.Plan[] plans = new OrderedLockManager.Plan[ROUTES];
+        for (int r = 0; r < ROUTES; r++) {
+            plans[r] = manager.plan(routes[r]);
+        }
+
+        String[] names = {"identityHashCode sort", "manager.lockAll(set)", "plan.lockAll()", "plan.tryLockAll(1ms)"};
+        Strategy[] strategies = {
+                new Strategy() {
+                    @Override
+                    public void lockAll(int route) {
+                        Arrays.stream(routes[route])
+                                .sorted((a, b) -> Integer.compare(System.identityHashCode(a), System.identityHashCode(b)))
+                                .forEach(ReentrantLock::lock);
+                    }
+
+                    @Override
+                    public void unlockAll(int route) {
+                        Arrays.stream(routes[route]).forEach(ReentrantLock::unlock);
+                    }
+                },
+                new Strategy() {
+                    @Override
+                    public void lockAll(int route) {
+                        manager.lockAll(routes[route]);
+                    }
+
+                    @Override
+                    public void unlockAll(int route) {
+                        manager.unlockAll(routes[route]);
+                    }
+                },
+                new Strategy() {
+                    @Override
+                    public void lockAll(int route) {
+                        plans[route].lockAll();
+                    }
+
+                    @Override
+                    public void unlockAll(int route) {
+                        plans[route].unlockAll();
+                    }
+                },
+                null // timed, see run()
+        };
+
+        int maxThreads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        System.out.printf("%d accounts, %d routes of 2-8 accounts%n", accounts, ROUTES);
+        System.out.printf("%-24s %8s %14s %12s%n", "strategy", "threads", "transfers/sec", "timeouts");
+        for (int s = 0; s < names.length; s++) {
+            for (int threads : BenchmarkHarness.powersOfTwo(maxThreads)) {
+                run(strategies[s], plans, routeAccounts, balances, threads, millis / 5); // warm-up
+                long[] result = run(strategies[s], plans, routeAccounts, balances, threads, millis);
+                System.out.printf("%-24s %8d %,14d %,12d%n", names[s], threads, result[0], result[1]);
+            }
+        }
+
+        long total = Arrays.stream(balances).sum();
+        System.out.println("Total balance " + total + (total == INITIAL_BALANCE * accounts ? " (consistent)" : " (BROKEN!)"));
+        System.out.println("Most waited-on locks:");
+        Arrays.stream(locks)
+                .sorted(Comparator.comparingLong(RankedLock::totalWaitNanos).reversed())
+                .limit(5)
+                .forEach(lock -> System.out.println("  " + lock.waitReport()));
+    }
+
+    // {transfers/sec, timeouts}
+    private static long[] run(Strategy strategy, OrderedLockManager.Plan[] plans, int[][] routeAccounts,
+                              long[] balances, int threads, long millis) throws InterruptedException {
+        long[] timeouts = new long[threads];
+        BenchmarkHarness.Result result = BenchmarkHarness.run(threads, millis, id -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return () -> {
+                int route = random.nextInt(ROUTES);
+                if (strategy == null) {
+                    while (!plans[route].tryLockAll(1, TimeUnit.MILLISECONDS)) {
+                        timeouts[id]++;
+                    }
+                } else {
+                    strategy.lockAll(route);
+                }
+                try {
+                    transfer(balances, routeAccounts[route], random);
+                } finally {
+                    if (strategy == null) {
+                        plans[route].unlockAll();
+                    } else {
+                        strategy.unlockAll(route);
+                    }
+                }
+                return 1;
+            };
+        });
+        return new long[]{result.perSecond(), Arrays.stream(timeouts).sum()};
+    }
+
+    // Moves a random amount from the first account of the route to each of the others
+    private static void transfer(long[] balances, int[] accounts, ThreadLocalRandom random) {
+        long checksum = 0;
+        for (int i = 1; i < accounts.length; i++) {
+            long amount = random.nextLong(10);
+            balances[accounts[0]] -= amount;
+            balances[accounts[i]] += amount;
+            checksum += balances[accounts[i]];
+        }
+        BenchmarkHarness.consume(checksum);
+    }
+}
@@ -0,0 +1,139 @@
+package multithreading.deadlock.avoiding_strategy;
+
+import multithreading.deadlock.LockTracker;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A ReentrantLock with a stable, UNIQUE rank - the global order OrderedLockManager locks in.
+ *
+ * System.identityHashCode() is not a safe order: two objects can have the same hash code, and then two threads
+ * may sort the same pair differently → exactly the circular wait that sorting was supposed to prevent.
+ * The rank here comes from a global counter, so no two locks ever share one.
+ *
+ * It also keeps track of how long threads WAITED for it. Only contended acquisitions are timed (the
+ * uncontended tryLock() fast path costs nothing extra), so the numbers are cheap enough to keep on always.
+ * Holders and waiters are reported to LockTracker for DeadlockDetector (free while tracking is off).
+ */
+public class RankedLock extends ReentrantLock {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final AtomicLong nextRank = new AtomicLong();
+
+    private final long rank = nextRank.incrementAndGet();
+    private final String name;
+
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+    public RankedLock(String name) {
+        this.name = name;
+    }
+
+    public long rank() {
+        return rank;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public boolean tryLock() {
+        if (super.tryLock()) {
+            LockTracker.acquired(this);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void lock() {
+        if (!tryLock()) {
+            LockTracker.waiting(this);
+            long start = System.nanoTime();
+            super.lock();
+            recordWait(System.nanoTime() - start);
+            LockTracker.acquired(this);
+        }
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        if (!tryLock()) {
+            LockTracker.waiting(this);
+            long start = System.nanoTime();
+            try {
+                super.lockInterruptibly();
+            } catch (InterruptedException e) {
+                LockTracker.stoppedWaiting();
+                throw e;
+            } finally {
+                recordWait(System.nanoTime() - start);
+            }
+            LockTracker.acquired(this);
+        }
+    }
+
+    @Override
+    public boolean tryLock(long timeout, TimeUnit unit) throws InterruptedException {
+        if (tryLock()) {
+            return true;
+        }
+        LockTracker.waiting(this);
+        long start = System.nanoTime();
+        boolean locked = false;
+        try {
+            locked = super.tryLock(timeout, unit);
+        } finally {
+            recordWait(System.nanoTime() - start); // time given up on counts as waiting too
+            if (locked) {
+                LockTracker.acquired(this);
+            } else {
+                LockTracker.stoppedWaiting();
+            }
+        }
+        return locked;
+    }
+
+    @Override
+    public void unlock() {
+        super.unlock();
+        LockTracker.released(this);
+    }
+
+    private void recordWait(long nanos) {
+        contended.increment();
+        waitNanos.add(nanos);
+        maxWaitNanos.accumulate(nanos);
+    }
+
+    public long contendedAcquisitions() {
+        return contended.sum();
+    }
+
+    public long totalWaitNanos() {
+        return waitNanos.sum();
+    }
+
+    public long maxWaitNanos() {
+        return maxWaitNanos.get();
+    }
+
+    public String waitReport() {
+        long count = contended.sum();
+        return String.format("%s(rank %d): contended=%,d avgWait=%,dns maxWait=%,dns",
+                name, rank, count, count == 0 ? 0 : waitNanos.sum() / count, maxWaitNanos.get());
+    }
+
+    @Override
+    public String toString() {
+        return name + "#" + rank;
+    }
+}
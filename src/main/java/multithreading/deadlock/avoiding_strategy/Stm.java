@@ -0,0 +1,186 @@
+package multithreading.deadlock.avoiding_strategy;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Software transactional memory (TL2 style): update any number of TxRefs atomically WITHOUT lock ordering.
+ *
+ * LockOrdering/OrderedLockManager avoid deadlock by making every thread lock in the same order - so every
+ * piece of code has to know all the locks up front. Here a transaction just reads and writes refs:
+ *
+ * 1. Start: remember the global version clock (readVersion).
+ * 2. tx.get(ref): optimistic read - valid only if the ref wasn't committed after readVersion; otherwise the
+ *    snapshot is already inconsistent → abort and retry at once.
+ * 3. tx.set(ref, v): buffered in the transaction, nobody sees it yet.
+ * 4. Commit: try-lock the written refs (never wait: a busy ref = abort), take a new version from the clock,
+ *    validate that nothing we READ changed in the meantime, publish the writes with the new version, unlock.
+ *
+ * No thread ever blocks while holding a ref, so there is nothing to deadlock on. Conflicts cost retries instead:
+ * the block passed to atomic() may run several times, so it must not have side effects other than on TxRefs.
+ * An abort is signalled with an internal exception - don't catch Throwable/RuntimeException inside the block.
+ */
+public final class Stm {
+
+    private static final AtomicLong clock = new AtomicLong();
+    private static final LongAdder commits = new LongAdder();
+    private static final LongAdder aborts = new LongAdder();
+
+    private static final class Abort extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        private static final Abort INSTANCE = new Abort();
+
+        private Abort() {
+            super("transaction conflict", null, false, false); // thrown on every conflict: no stack trace
+        }
+    }
+
+    /**
+     * Read and write sets are small arrays searched linearly: transactions touch a handful of refs, and that is
+     * cheaper than hashing (and allocates less than a HashMap per attempt).
+     */
+    public static final class Transaction {
+        private final long readVersion = clock.get();
+        private TxRef<?>[] reads = new TxRef<?>[8];
+        private int readCount;
+        private TxRef<?>[] writeRefs = new TxRef<?>[4];
+        private Object[] writeValues = new Object[4];
+        private int writeCount;
+        private int lockedCount;
+
+        private Transaction() {
+        }
+
+        @SuppressWarnings("unchecked")
+        public <T> T get(TxRef<T> ref) {
+            int written = indexOfWrite(ref);
+            if (written >= 0) {
+                return (T) writeValues[written]; // read your own write
+            }
+            long before = ref.stamp.get();
+            T value = ref.value;
+            long after = ref.stamp.get();
+            if (before != after || TxRef.isLocked(before) || TxRef.version(before) > readVersion) {
+                throw Abort.INSTANCE; // changed after we started (or is being changed)
+            }
+            if (readCount == reads.length) {
+                reads = Arrays.copyOf(reads, readCount * 2);
+            }
+            reads[readCount++] = ref;
+            return value;
+        }
+
+        public <T> void set(TxRef<T> ref, T value) {
+            int written = indexOfWrite(ref);
+            if (written >= 0) {
+                writeValues[written] = value;
+                return;
+            }
+            if (writeCount == writeRefs.length) {
+                writeRefs = Arrays.copyOf(writeRefs, writeCount * 2);
+                writeValues = Arrays.copyOf(writeValues, writeCount * 2);
+            }
+            writeRefs[writeCount] = ref;
+            writeValues[writeCount++] = value;
+        }
+
+        private int indexOfWrite(TxRef<?> ref) {
+            for (int i = 0; i < writeCount; i++) {
+                if (writeRefs[i] == ref) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @SuppressWarnings("unchecked")
+        private boolean commit() {
+            if (writeCount == 0) {
+                return true; // read-only: every read was already validated against readVersion
+            }
+            try {
+                for (; lockedCount < writeCount; lockedCount++) {
+                    TxRef<?> ref = writeRefs[lockedCount];
+                    long stamp = ref.stamp.get();
+                    if (TxRef.isLocked(stamp) || TxRef.version(stamp) > readVersion
+                            || !ref.stamp.compareAndSet(stamp, stamp | 1)) {
+                        return false;
+                    }
+                }
+                long writeVersion = clock.incrementAndGet();
+                if (writeVersion != readVersion + 1) { // someone committed since we started: re-check our reads
+                    for (int i = 0; i < readCount; i++) {
+                        long stamp = reads[i].stamp.get();
+                        if (TxRef.version(stamp) > readVersion || (TxRef.isLocked(stamp) && indexOfWrite(reads[i]) < 0)) {
+                            return false;
+                        }
+                    }
+                }
+                for (int i = 0; i < writeCount; i++) {
+                    ((TxRef<Object>) writeRefs[i]).value = writeValues[i];
+                }
+                for (int i = 0; i < writeCount; i++) {
+                    writeRefs[i].stamp.set(writeVersion << 1); // publish + unlock in one write
+                }
+                lockedCount = 0;
+                return true;
+            } finally {
+                for (int i = 0; i < lockedCount; i++) {
+                    writeRefs[i].stamp.decrementAndGet(); // aborted: unlock, version unchanged
+                }
+            }
+        }
+    }
+
+    private Stm() {
+    }
+
+    /**
+     * Runs the block as one atomic transaction, retrying it until it commits, and returns its result.
+     */
+    public static <R> R atomic(Function<Transaction, R> block) {
+        for (int attempt = 0; ; attempt++) {
+            Transaction tx = new Transaction();
+            try {
+                R result = block.apply(tx);
+                if (tx.commit()) {
+                    commits.increment();
+                    return result;
+                }
+            } catch (Abort abort) {
+                // inconsistent read, retry below
+            }
+            aborts.increment();
+            backOff(attempt);
+        }
+    }
+
+    public static void run(Consumer<Transaction> block) {
+        atomic(tx -> {
+            block.accept(tx);
+            return null;
+        });
+    }
+
+    // Retry at once the first few times; after that spread the retries out so hot refs stop colliding
+    private static void backOff(int attempt) {
+        if (attempt < 4) {
+            Thread.onSpinWait();
+        } else {
+            LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(1_000L << Math.min(attempt - 4, 10)));
+        }
+    }
+
+    public static long commits() {
+        return commits.sum();
+    }
+
+    public static long aborts() {
+        return aborts.sum();
+    }
+}
@@ -0,0 +1,137 @@
+package multithreading.deadlock.avoiding_strategy;
+
+import multithreading.benchmark.BenchmarkHarness;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Bank transfers between random accounts: STM vs ordered locking.
+ *
+ * - STM:             Stm.run(tx -> move money between two TxRefs), no locks, no ordering.
+ * - ordered locking: one RankedLock per account, the lower rank locked first (LockOrdering / OrderedLockManager).
+ *
+ * Low conflict = 10,000 accounts (two transfers rarely touch the same account), high conflict = 8 accounts
+ * (almost every pair of concurrent transfers overlaps). For STM the abort rate shows how much work was thrown
+ * away and retried. After every run the money must add up to the starting total.
+ *
+ * Usage: StmBenchmark [millisPerRun]
+ */
+public class StmBenchmark {
+
+    private static final long INITIAL_BALANCE = 1_000;
+
+    private interface Bank {
+        void transfer(int from, int to, long amount);
+
+        long total();
+    }
+
+    private static final class StmBank implements Bank {
+        private final TxRef<Long>[] accounts;
+
+        @SuppressWarnings("unchecked")
+        StmBank(int size) {
+            accounts = (TxRef<Long>[]) new TxRef<?>[size];
+            for (int i = 0; i < size; i++) {
+                accounts[i] = new TxRef<>(INITIAL_BALANCE);
+            }
+        }
+
+        @Override
+        public void transfer(int from, int to, long amount) {
+            TxRef<Long> source = accounts[from];
+            TxRef<Long> target = accounts[to];
+            Stm.run(tx -> {
+                long balance = tx.get(source);
+                if (balance >= amount) {
+                    tx.set(source, balance - amount);
+                    tx.set(target, tx.get(target) + amount);
+                }
+            });
+        }
+
+        @Override
+        public long total() {
+            return Stm.atomic(tx -> Arrays.stream(accounts).mapToLong(tx::get).sum());
+        }
+    }
+
+    private static final class LockingBank implements Bank {
+        private final RankedLock[] locks;
+        private final long[] balances;
+
+        LockingBank(int size) {
+            locks = new RankedLock[size];
+            balances = new long[size];
+            for (int i = 0; i < size; i++) {
+                locks[i] = new RankedLock("account-" + i);
+                balances[i] = INITIAL_BALANCE;
+            }
+        }
+
+        @Override
+        public void transfer(int from, int to, long amount) {
+            RankedLock first = locks[from].rank() < locks[to].rank() ? locks[from] : locks[to];
+            RankedLock second = first == locks[from] ? locks[to] : locks[from];
+            first.lock();
+            try {
+                second.lock();
+                try {
+                    if (balances[from] >= amount) {
+                        balances[from] -= amount;
+                        balances[to] += amount;
+                    }
+                } finally {
+                    second.unlock();
+                }
+            } finally {
+                first.unlock();
+            }
+        }
+
+        @Override
+        public long total() {
+            return Arrays.stream(balances).sum(); // called after all threads stopped
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        int maxThreads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+        System.out.printf("%-16s %9s %8s %14s %11s %s%n", "bank", "accounts", "threads", "transfers/sec", "abort rate", "total");
+        for (int accounts : new int[]{10_000, 8}) {
+            for (int threads : BenchmarkHarness.powersOfTwo(maxThreads)) {
+                for (String name : new String[]{"stm", "ordered locking"}) {
+                    Bank bank = name.equals("stm") ? new StmBank(accounts) : new LockingBank(accounts);
+                    run(bank, accounts, threads, millis / 5); // warm-up
+                    long commitsBefore = Stm.commits();
+                    long abortsBefore = Stm.aborts();
+                    long rate = run(bank, accounts, threads, millis);
+                    long commits = Stm.commits() - commitsBefore;
+                    long aborts = Stm.aborts() - abortsBefore;
+                    long total = bank.total();
+                    System.out.printf("%-16s %,9d %8d %,14d %10.1f%% %s%n", name, accounts, threads, rate,
+                            name.equals("stm") && commits + aborts > 0 ? 100.0 * aborts / (commits + aborts) : 0.0,
+                            total == INITIAL_BALANCE * accounts ? "ok" : "BROKEN: " + total);
+                }
+            }
+            System.out.println();
+        }
+    }
+
+    private static long run(Bank bank, int accounts, int threads, long millis) throws InterruptedException {
+        return BenchmarkHarness.run(threads, millis, index -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return () -> {
+                for (int i = 0; i < BenchmarkHarness.BATCH_SIZE; i++) {
+                    int from = random.nextInt(accounts);
+                    int to = random.nextInt(accounts - 1);
+                    bank.transfer(from, to >= from ? to + 1 : to, random.nextLong(1, 100));
+                }
+                return BenchmarkHarness.BATCH_SIZE;
+            };
+        }).perSecond();
+    }
+}
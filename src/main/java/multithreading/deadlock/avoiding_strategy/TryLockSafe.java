@@ -8,37 +8,31 @@ public class TryLockSafe {
     private static final Lock Lock1 = new ReentrantLock();
     private static final Lock Lock2 = new ReentrantLock();
 
-    public static void main(String[] args) {
-        Runnable task = () -> {
-            while (true) {
-                try {
-                    if (Lock1.tryLock(1000, TimeUnit.MILLISECONDS)) {
-                        try {
-                            if (Lock2.tryLock(1000, TimeUnit.MILLISECONDS)) {
-                                try {
-                                    System.out.println(Thread.currentThread().getName() + ": Acquired both locks.");
-                                    break;
-                                } finally {
-                                    Lock2.unlock();
-                                }
-                            }
-                        } finally {
-                            Lock1.unlock();
-                        }
-                    }
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
+    // Random, growing waits between attempts: two threads that failed together don't retry together (no livelock)
+    private static final MultiLockAcquirer acquirer =
+            new MultiLockAcquirer(MultiLockAcquirer.decorrelatedJitter(1, 100, TimeUnit.MILLISECONDS));
 
-                System.out.println(Thread.currentThread().getName() + ": Couldn't acquire both locks. Retrying...");
-                try { Thread.sleep(100); } catch (InterruptedException ignored) {}
-            }
-        };
-
-        Thread t1 = new Thread(task, "Thread 1");
-        Thread t2 = new Thread(task, "Thread 2");
+    public static void main(String[] args) {
+        Thread t1 = new Thread(() -> task(Lock1, Lock2), "Thread 1");
+        Thread t2 = new Thread(() -> task(Lock2, Lock1), "Thread 2"); // opposite order
 
         t1.start();
         t2.start();
     }
+
+    private static void task(Lock first, Lock second) {
+        try {
+            while (!acquirer.acquireAll(1000, TimeUnit.MILLISECONDS, first, second)) {
+                System.out.println(Thread.currentThread().getName() + ": Couldn't acquire both locks. Retrying...");
+            }
+            try {
+                System.out.println(Thread.currentThread().getName() + ": Acquired both locks.");
+            } finally {
+                acquirer.releaseAll(first, second);
+            }
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        System.out.println(Thread.currentThread().getName() + ": retries so far " + acquirer.retries());
+    }
 }
@@ -0,0 +1,44 @@
+package multithreading.deadlock.avoiding_strategy;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A transactional reference: a value plus the version (commit timestamp) that wrote it.
+ *
+ * stamp = version * 2 when free, odd while a committing transaction holds it locked. The lock is held only for
+ * the few instructions of a commit, and nobody ever WAITS for it - a transaction that finds it taken aborts
+ * and retries (see Stm).
+ *
+ * Read and write it inside Stm.atomic()/Stm.run() with tx.get(ref)/tx.set(ref, value).
+ */
+public final class TxRef<T> {
+
+    final AtomicLong stamp = new AtomicLong();
+    volatile T value;
+
+    public TxRef(T initialValue) {
+        this.value = initialValue;
+    }
+
+    /**
+     * The latest committed value, outside of any transaction (a single read is always consistent).
+     */
+    public T read() {
+        while (true) {
+            long before = stamp.get();
+            T current = value;
+            if ((before & 1) == 0 && stamp.get() == before) {
+                return current;
+            }
+            Thread.onSpinWait(); // a commit is writing it right now
+        }
+    }
+
+    static boolean isLocked(long stamp) {
+        return (stamp & 1) != 0;
+    }
+
+    static long version(long stamp) {
+        return stamp >>> 1;
+    }
+}
@@ -0,0 +1,50 @@
+package multithreading.dining_philosophers_problem;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Both forks in ONE step: the forks are bits in a ResourceTable, and a philosopher takes its two bits with a single
+ * CAS (all-or-nothing) or parks until a neighbour puts a fork down.
+ *
+ * Nobody ever holds one fork while waiting for the other, so there is nothing to deadlock on - no doorman needed,
+ * and eating costs one CAS to pick up and one to put down instead of two blocking acquire()/release() pairs
+ * plus the doorman's.
+ */
+public class BitmaskStrategy implements DiningStrategy {
+
+    private final ResourceTable forks;
+    private final ResourceTable.Claim[] bothForks; // per philosopher, computed once
+    private final LongAdder contention = new LongAdder();
+
+    public BitmaskStrategy(int totalPhilosophers) {
+        this.forks = new ResourceTable(totalPhilosophers);
+        this.bothForks = new ResourceTable.Claim[totalPhilosophers];
+        for (int i = 0; i < totalPhilosophers; i++) {
+            bothForks[i] = forks.claim(DiningStrategy.leftFork(i), DiningStrategy.rightFork(i, totalPhilosophers));
+        }
+    }
+
+    @Override
+    public String name() {
+        return "bitmask";
+    }
+
+    @Override
+    public void pickUpForks(int philosopherId) throws InterruptedException {
+        ResourceTable.Claim claim = bothForks[philosopherId];
+        if (!forks.tryAcquire(claim)) {
+            contention.increment();
+            forks.acquire(claim);
+        }
+    }
+
+    @Override
+    public void putDownForks(int philosopherId) {
+        forks.release(bothForks[philosopherId]);
+    }
+
+    @Override
+    public long forkContention() {
+        return contention.sum();
+    }
+}
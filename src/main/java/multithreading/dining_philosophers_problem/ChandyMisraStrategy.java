@@ -0,0 +1,137 @@
+package multithreading.dining_philosophers_problem;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Chandy–Misra "hygienic" philosophers: every fork always BELONGS to one of its two philosophers and is either
+ * clean or dirty.
+ *
+ * - Eating makes both forks dirty.
+ * - A hungry philosopher who doesn't own a fork REQUESTS it (the fork's request token) and waits.
+ * - The owner hands a requested fork over as soon as it is dirty and not being eaten with - when it puts the
+ *   fork down, or when it is hungry again itself: a requested dirty fork is never used for another meal.
+ *   The fork is cleaned on the way, and the requester keeps it until it has eaten.
+ * - A CLEAN fork is never given away: it was handed over to a hungry philosopher who hasn't eaten yet.
+ *
+ * So a philosopher who just ate has to give way to a hungry neighbour - nobody starves, and there is no central
+ * doorman or waiter: philosophers only ever touch their own two forks. Initially every fork is dirty and
+ * belongs to the lower numbered philosopher, which makes the "who yields to whom" graph acyclic (no deadlock).
+ *
+ * In the original algorithm the neighbours exchange request tokens by message; on shared memory the token is a
+ * flag on the fork, set by the waiting neighbour and checked by the owner under the fork's monitor.
+ */
+public class ChandyMisraStrategy implements DiningStrategy {
+
+    private static final class Fork {
+        final int first;   // the two philosophers sharing this fork
+        final int second;
+        int owner;
+        boolean dirty = true;
+        boolean inUse;
+        boolean requested; // the neighbour who doesn't own the fork is waiting for it
+
+        Fork(int first, int second) {
+            this.first = first;
+            this.second = second;
+            this.owner = Math.min(first, second);
+        }
+
+        // Gives the fork, cleaned, to the neighbour who requested it (caller holds the monitor)
+        void handOver() {
+            owner = owner == first ? second : first;
+            dirty = false;
+            requested = false;
+            notifyAll();
+        }
+    }
+
+    private final int totalPhilosophers;
+    private final Fork[] forks;
+    private final LongAdder contention = new LongAdder();
+
+    public ChandyMisraStrategy(int totalPhilosophers) {
+        this.totalPhilosophers = totalPhilosophers;
+        this.forks = new Fork[totalPhilosophers];
+        for (int f = 0; f < totalPhilosophers; f++) {
+            // Fork f lies between philosophers f and f + 1
+            forks[f] = new Fork(f, (f + 1) % totalPhilosophers);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "chandy-misra";
+    }
+
+    @Override
+    public void pickUpForks(int philosopherId) throws InterruptedException {
+        int left = DiningStrategy.leftFork(philosopherId);
+        int right = DiningStrategy.rightFork(philosopherId, totalPhilosophers);
+        Fork low = forks[Math.min(left, right)];
+        Fork high = forks[Math.max(left, right)];
+        while (true) {
+            obtain(low, philosopherId);
+            obtain(high, philosopherId);
+            // A fork we owned DIRTY may have been requested and handed over while we waited for the other one
+            // → start over. Both monitors in fork order, held only for a few instructions.
+            synchronized (low) {
+                synchronized (high) {
+                    if (low.owner == philosopherId && high.owner == philosopherId) {
+                        low.inUse = true;
+                        high.inUse = true;
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private void obtain(Fork fork, int philosopherId) throws InterruptedException {
+        synchronized (fork) {
+            if (fork.owner == philosopherId) {
+                if (!fork.requested || !fork.dirty) {
+                    return; // clean (we haven't eaten with it yet), or nobody asked for it
+                }
+                fork.handOver(); // the neighbour asked first and we already ate with it: its turn
+            } else if (fork.dirty && !fork.inUse) {
+                // The owner isn't eating with it, so it would hand it over on request anyway
+                fork.owner = philosopherId;
+                fork.dirty = false;
+                return;
+            }
+            contention.increment();
+            fork.requested = true;
+            try {
+                do {
+                    fork.wait();
+                } while (fork.owner != philosopherId);
+            } catch (InterruptedException e) {
+                if (fork.owner != philosopherId) {
+                    fork.requested = false; // nobody is waiting any more
+                }
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public void putDownForks(int philosopherId) {
+        release(forks[DiningStrategy.leftFork(philosopherId)]);
+        release(forks[DiningStrategy.rightFork(philosopherId, totalPhilosophers)]);
+    }
+
+    private void release(Fork fork) {
+        synchronized (fork) {
+            fork.inUse = false;
+            fork.dirty = true; // we ate with it: a hungry neighbour may have it now
+            if (fork.requested) {
+                fork.handOver();
+            }
+        }
+    }
+
+    @Override
+    public long forkContention() {
+        return contention.sum();
+    }
+}
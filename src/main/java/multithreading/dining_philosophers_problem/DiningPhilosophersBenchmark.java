@@ -0,0 +1,78 @@
+package multithreading.dining_philosophers_problem;
+
+import multithreading.benchmark.BenchmarkHarness;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How the strategies scale with the size of the table.
+ *
+ * Every philosopher thinks and eats for a few µs (random) in a loop for a fixed time. Per strategy and table size:
+ * - meals/sec      → throughput of the whole table;
+ * - min/avg meals  → how evenly the meals were shared (min close to avg = fair);
+ * - never ate      → philosophers without a single meal (with thousands of threads on few cores this also
+ *                    includes threads the OS didn't schedule before the deadline);
+ * - max hungry     → longest time any philosopher waited for its forks (worst-case starvation);
+ * - contention     → fork acquisitions that had to wait, per meal.
+ *
+ * One platform thread per philosopher, started with a small stack so that 10,000 of them fit - on a JDK with
+ * virtual threads the same loop could run on those instead.
+ *
+ * Usage: DiningPhilosophersBenchmark [millisPerRun] [tableSize ...]
+ */
+public class DiningPhilosophersBenchmark {
+
+    private static final String[] STRATEGIES = {"doorman", "bitmask", "hierarchy", "chandy-misra", "waiter"};
+    private static final long STACK_SIZE = 256 * 1024;
+    private static final long THINK_NANOS = 50_000;
+    private static final long EAT_NANOS = 50_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+        int[] sizes = {5, 100, 1_000, 10_000};
+        if (args.length > 1) {
+            sizes = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                sizes[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+
+        System.out.printf("%-13s %7s %12s %9s %9s %9s %12s %11s%n",
+                "strategy", "N", "meals/sec", "min", "avg", "never ate", "max hungry", "waits/meal");
+        for (int n : sizes) {
+            for (String strategy : STRATEGIES) {
+                run(n, strategy, millis);
+            }
+            System.out.println();
+        }
+    }
+
+    private static void run(int n, String strategyName, long millis) throws InterruptedException {
+        DiningPhilosophersTable table = new DiningPhilosophersTable(n, DiningStrategy.create(strategyName, n));
+        // The table counts the meals, so the batches report 0 operations
+        long elapsed = BenchmarkHarness.run(n, millis, "philosopher-", STACK_SIZE, id -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return () -> {
+                LockSupport.parkNanos(random.nextLong(THINK_NANOS)); // Think
+                table.eat(id, random.nextLong(EAT_NANOS));
+                return 0;
+            };
+        }).elapsedNanos();
+
+        long total = 0;
+        long min = Long.MAX_VALUE;
+        long maxHungry = 0;
+        int starved = 0;
+        for (int i = 0; i < n; i++) {
+            long meals = table.meals(i);
+            total += meals;
+            min = Math.min(min, meals);
+            starved += meals == 0 ? 1 : 0;
+            maxHungry = Math.max(maxHungry, table.maxHungryNanos(i));
+        }
+        System.out.printf("%-13s %,7d %,12d %,9d %,9d %,9d %10.1fms %11.3f%n",
+                strategyName, n, total * 1_000_000_000L / elapsed, min, total / n, starved,
+                maxHungry / 1e6, total == 0 ? 0.0 : (double) table.strategy().forkContention() / total);
+    }
+}
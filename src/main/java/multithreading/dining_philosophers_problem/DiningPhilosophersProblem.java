@@ -2,11 +2,15 @@ package multithreading.dining_philosophers_problem;
 
 public class DiningPhilosophersProblem {
 
+    // Usage: DiningPhilosophersProblem [philosophers] [bitmask | doorman | hierarchy | chandy-misra | waiter]
     public static void main(String[] args) {
-        DiningPhilosophersTable table = new DiningPhilosophersTable();
+        int totalPhilosophers = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        String strategy = args.length > 1 ? args[1] : "bitmask";
+        DiningPhilosophersTable table = new DiningPhilosophersTable(totalPhilosophers,
+                DiningStrategy.create(strategy, totalPhilosophers));
 
-        // Create and start 5 philosopher threads
-        for (int i = 0; i < 5; i++) {
+        // Create and start the philosopher threads
+        for (int i = 0; i < totalPhilosophers; i++) {
             new Philosopher(i, table).start();
         }
     }
@@ -1,49 +1,78 @@
 package multithreading.dining_philosophers_problem;
 
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
 
 public class DiningPhilosophersTable {
 
-    int totalPhilosophers = 5;
+    final int totalPhilosophers;
 
-    // Represents forks: 1 fork between each pair of philosophers
-    private final Semaphore[] forksSemaphore = new Semaphore[5];
+    // How philosophers get their two forks (bitmask, doorman, resource hierarchy, Chandy–Misra, waiter)
+    private final DiningStrategy strategy;
 
-    // Semaphore to limit the number of philosophers eating at once (at most 4 to prevent deadlock)
-    private final Semaphore diningTableSemaphore = new Semaphore(4); // Max 4 philosophers at a time
+    // Per-philosopher statistics, each slot written only by its own philosopher thread
+    private final long[] meals;
+    private final long[] maxHungryNanos;
 
     public DiningPhilosophersTable() {
-        // Initialize each fork as a binary semaphore (1 available permit)
-        for (int i = 0; i < totalPhilosophers; i++) {
-            forksSemaphore[i] = new Semaphore(1);
+        this(5, new BitmaskStrategy(5)); // 5 philosophers, both forks taken in one CAS - no doorman needed
+    }
+
+    public DiningPhilosophersTable(int totalPhilosophers, DiningStrategy strategy) {
+        if (totalPhilosophers < 2) {
+            throw new IllegalArgumentException("Need at least 2 philosophers (and 2 forks)");
         }
+        this.totalPhilosophers = totalPhilosophers;
+        this.strategy = strategy;
+        this.meals = new long[totalPhilosophers];
+        this.maxHungryNanos = new long[totalPhilosophers];
     }
 
     // Called by philosopher thread to eat
     public void philosopherStartEating(int philosopherId) throws InterruptedException {
+        long hungrySince = System.nanoTime();
+        strategy.pickUpForks(philosopherId);
+        try {
+            recordMeal(philosopherId, hungrySince);
 
-        int leftFork = philosopherId;
-        int rightFork = (philosopherId + (totalPhilosophers - 1)) % 5;
-
-        // Start Eating at the Dining Table ....
-        diningTableSemaphore.acquire();
-
-        // Pick up left and right forks
-        forksSemaphore[leftFork].acquire();
-        forksSemaphore[rightFork].acquire();
+            // Eat
+            System.out.println("Philosopher " + philosopherId + " is eating");
+            Thread.sleep(1000);
+        } finally {
+            // Put down forks
+            strategy.putDownForks(philosopherId);
+        }
+        System.out.println("Philosopher " + philosopherId + " is done eating");
+    }
 
-        // Eat
-        System.out.println("Philosopher " + philosopherId + " is eating");
-        Thread.sleep(1000);
+    /**
+     * Same as philosopherStartEating(), without the printing: for benchmarks with thousands of philosophers.
+     */
+    public void eat(int philosopherId, long eatNanos) throws InterruptedException {
+        long hungrySince = System.nanoTime();
+        strategy.pickUpForks(philosopherId);
+        try {
+            recordMeal(philosopherId, hungrySince);
+            LockSupport.parkNanos(eatNanos); // Thread.sleep() would round up to a whole millisecond
+        } finally {
+            strategy.putDownForks(philosopherId);
+        }
+    }
 
-        // Put down forks
-        forksSemaphore[leftFork].release();
-        forksSemaphore[rightFork].release();
+    private void recordMeal(int philosopherId, long hungrySince) {
+        meals[philosopherId]++;
+        maxHungryNanos[philosopherId] = Math.max(maxHungryNanos[philosopherId], System.nanoTime() - hungrySince);
+    }
 
-        System.out.println("Philosopher " + philosopherId + " is done eating");
+    public DiningStrategy strategy() {
+        return strategy;
+    }
 
-        // Leave Eating at the Dining Table ....
-        diningTableSemaphore.release();
+    // Read these after the philosopher threads were joined
+    public long meals(int philosopherId) {
+        return meals[philosopherId];
     }
 
+    public long maxHungryNanos(int philosopherId) {
+        return maxHungryNanos[philosopherId];
+    }
 }
@@ -0,0 +1,46 @@
+package multithreading.dining_philosophers_problem;
+
+/**
+ * How a philosopher gets both forks. The table doesn't care - every strategy below avoids deadlock in its own way.
+ *
+ * Philosopher i sits between fork i (left) and fork i - 1 (right, wrapping around), as in the original
+ * 5-philosopher table, so fork f is shared by philosophers f and f + 1.
+ *
+ * forkContention() counts how often a philosopher could NOT get a fork right away and had to wait for it.
+ */
+public interface DiningStrategy {
+
+    String name();
+
+    void pickUpForks(int philosopherId) throws InterruptedException;
+
+    void putDownForks(int philosopherId);
+
+    long forkContention();
+
+    static int leftFork(int philosopherId) {
+        return philosopherId;
+    }
+
+    static int rightFork(int philosopherId, int totalPhilosophers) {
+        return (philosopherId + totalPhilosophers - 1) % totalPhilosophers;
+    }
+
+    static DiningStrategy create(String name, int totalPhilosophers) {
+        switch (name) {
+            case "doorman":
+                return new DoormanStrategy(totalPhilosophers);
+            case "hierarchy":
+                return new ResourceHierarchyStrategy(totalPhilosophers);
+            case "chandy-misra":
+                return new ChandyMisraStrategy(totalPhilosophers);
+            case "waiter":
+                return new WaiterStrategy(totalPhilosophers);
+            case "bitmask":
+                return new BitmaskStrategy(totalPhilosophers);
+            default:
+                throw new IllegalArgumentException("Unknown strategy: " + name
+                        + " (doorman | hierarchy | chandy-misra | waiter | bitmask)");
+        }
+    }
+}
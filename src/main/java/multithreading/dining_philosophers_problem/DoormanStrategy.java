@@ -0,0 +1,69 @@
+package multithreading.dining_philosophers_problem;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The original solution, for any N: a doorman lets at most N - 1 philosophers reach for forks, so at least one
+ * of them always gets both (see Concept.md).
+ *
+ * The doorman is a single Semaphore shared by the whole table - with many philosophers every pickup goes through
+ * the same counter, even though two philosophers far apart never compete for a fork.
+ */
+public class DoormanStrategy implements DiningStrategy {
+
+    private final int totalPhilosophers;
+    private final Semaphore[] forks;
+    private final Semaphore doorman;
+    private final LongAdder contention = new LongAdder();
+
+    public DoormanStrategy(int totalPhilosophers) {
+        this.totalPhilosophers = totalPhilosophers;
+        this.forks = new Semaphore[totalPhilosophers];
+        for (int i = 0; i < totalPhilosophers; i++) {
+            forks[i] = new Semaphore(1);
+        }
+        this.doorman = new Semaphore(totalPhilosophers - 1);
+    }
+
+    @Override
+    public String name() {
+        return "doorman";
+    }
+
+    @Override
+    public void pickUpForks(int philosopherId) throws InterruptedException {
+        doorman.acquire();
+        try {
+            take(forks[DiningStrategy.leftFork(philosopherId)]);
+            try {
+                take(forks[DiningStrategy.rightFork(philosopherId, totalPhilosophers)]);
+            } catch (InterruptedException e) {
+                forks[DiningStrategy.leftFork(philosopherId)].release();
+                throw e;
+            }
+        } catch (InterruptedException e) {
+            doorman.release();
+            throw e;
+        }
+    }
+
+    private void take(Semaphore fork) throws InterruptedException {
+        if (!fork.tryAcquire()) {
+            contention.increment();
+            fork.acquire();
+        }
+    }
+
+    @Override
+    public void putDownForks(int philosopherId) {
+        forks[DiningStrategy.leftFork(philosopherId)].release();
+        forks[DiningStrategy.rightFork(philosopherId, totalPhilosophers)].release();
+        doorman.release();
+    }
+
+    @Override
+    public long forkContention() {
+        return contention.sum();
+    }
+}
@@ -0,0 +1,66 @@
+package multithreading.dining_philosophers_problem;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resource hierarchy (Dijkstra): always pick up the LOWER numbered fork first.
+ *
+ * A deadlock needs a cycle of philosophers each holding one fork and waiting for the next. With a global order
+ * on forks the last philosopher (the one between fork N-1 and fork 0) reaches for fork 0 first, like its
+ * neighbour, so the cycle can't close. No doorman, nothing shared but the two forks.
+ *
+ * Not starvation-free by itself: forks are plain non-fair semaphores, a fast neighbour can keep winning.
+ */
+public class ResourceHierarchyStrategy implements DiningStrategy {
+
+    private final int totalPhilosophers;
+    private final Semaphore[] forks;
+    private final LongAdder contention = new LongAdder();
+
+    public ResourceHierarchyStrategy(int totalPhilosophers) {
+        this.totalPhilosophers = totalPhilosophers;
+        this.forks = new Semaphore[totalPhilosophers];
+        for (int i = 0; i < totalPhilosophers; i++) {
+            forks[i] = new Semaphore(1);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "hierarchy";
+    }
+
+    @Override
+    public void pickUpForks(int philosopherId) throws InterruptedException {
+        int left = DiningStrategy.leftFork(philosopherId);
+        int right = DiningStrategy.rightFork(philosopherId, totalPhilosophers);
+        Semaphore first = forks[Math.min(left, right)];
+        Semaphore second = forks[Math.max(left, right)];
+        take(first);
+        try {
+            take(second);
+        } catch (InterruptedException e) {
+            first.release();
+            throw e;
+        }
+    }
+
+    private void take(Semaphore fork) throws InterruptedException {
+        if (!fork.tryAcquire()) {
+            contention.increment();
+            fork.acquire();
+        }
+    }
+
+    @Override
+    public void putDownForks(int philosopherId) {
+        forks[DiningStrategy.leftFork(philosopherId)].release();
+        forks[DiningStrategy.rightFork(philosopherId, totalPhilosophers)].release();
+    }
+
+    @Override
+    public long forkContention() {
+        return contention.sum();
+    }
+}
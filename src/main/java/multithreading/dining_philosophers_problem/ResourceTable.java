@@ -0,0 +1,191 @@
+package multithreading.dining_philosophers_problem;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A table of resources (forks, accounts, ...) taken ALL-OR-NOTHING: either every resource of a set is taken,
+ * or none is.
+ *
+ * ✅ One bit per resource, 64 per word:
+ * Resource r is bit (r % 64) of word (r / 64) in an AtomicLongArray; 1 = busy. Taking a set that lies within one
+ * word is a single CAS: "if none of my bits are set, set them all". Nobody ever holds one resource while waiting
+ * for another, so there is no deadlock to prevent - no doorman, no lock ordering.
+ *
+ * A set spanning several words (e.g. the fork between the last and the first philosopher) takes the words in
+ * ascending order with one CAS each, and gives back the words it already took if a later one is busy.
+ *
+ * ✅ Waiting:
+ * A thread that finds a resource busy pushes itself on that resource's waiter list (a lock-free stack), checks
+ * again and parks. release() clears the bits first and then wakes everyone waiting on the released resources, so
+ * a wake-up can't be lost. Woken threads simply try again (no fairness: a running thread may take the resources
+ * first).
+ *
+ * Claim objects are computed once per resource set (word indexes + masks), so acquire/release allocate nothing
+ * on the fast path.
+ */
+public class ResourceTable {
+
+    private static final class Waiter {
+        final Thread thread;
+        Waiter next;
+        volatile boolean done; // not waiting on this node any more, don't bother unparking it
+
+        Waiter(Thread thread) {
+            this.thread = thread;
+        }
+    }
+
+    /**
+     * A set of resources, precomputed as (word, mask) pairs in ascending word order.
+     */
+    public static final class Claim {
+        private final int[] resources;
+        private final int[] words;
+        private final long[] masks;
+
+        private Claim(int[] resources) {
+            this.resources = resources;
+            int[] sorted = Arrays.stream(resources).map(r -> r >>> 6).distinct().sorted().toArray();
+            this.words = sorted;
+            this.masks = new long[sorted.length];
+            for (int r : resources) {
+                masks[Arrays.binarySearch(sorted, r >>> 6)] |= 1L << (r & 63);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Claim" + Arrays.toString(resources);
+        }
+    }
+
+    private final int size;
+    private final AtomicLongArray busy;
+    private final AtomicReferenceArray<Waiter> waiters;
+
+    public ResourceTable(int size) {
+        this.size = size;
+        this.busy = new AtomicLongArray((size + 63) >>> 6);
+        this.waiters = new AtomicReferenceArray<>(size);
+    }
+
+    public Claim claim(int... resources) {
+        for (int r : resources) {
+            if (r < 0 || r >= size) {
+                throw new IllegalArgumentException("No resource " + r + " in a table of " + size);
+            }
+        }
+        return new Claim(resources.clone());
+    }
+
+    public boolean tryAcquire(Claim claim) {
+        return tryTake(claim) < 0;
+    }
+
+    /**
+     * Takes every resource of the claim, waiting as long as any of them is busy.
+     */
+    public void acquire(Claim claim) throws InterruptedException {
+        int blocker = tryTake(claim);
+        if (blocker < 0) {
+            return;
+        }
+        Waiter waiter = null;
+        int queuedOn = -1;
+        try {
+            while (true) {
+                if (queuedOn != blocker) {
+                    if (waiter != null) {
+                        waiter.done = true;
+                    }
+                    waiter = new Waiter(Thread.currentThread()); // never reuse a node, it may still be in a list
+                    push(blocker, waiter);
+                    queuedOn = blocker;
+                } else {
+                    LockSupport.park(this);
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+                    queuedOn = -1; // release() took us off the list (or it was a spurious wake-up)
+                }
+                // Check again AFTER queueing: a release in between either left our bits free, or will wake us
+                blocker = tryTake(claim);
+                if (blocker < 0) {
+                    return;
+                }
+            }
+        } finally {
+            waiter.done = true;
+        }
+    }
+
+    public void release(Claim claim) {
+        for (int i = 0; i < claim.words.length; i++) {
+            clear(claim.words[i], claim.masks[i]);
+        }
+        wakeWaiters(claim);
+    }
+
+    private void wakeWaiters(Claim claim) {
+        for (int r : claim.resources) {
+            if (waiters.get(r) != null) {
+                for (Waiter w = waiters.getAndSet(r, null); w != null; w = w.next) {
+                    if (!w.done) {
+                        LockSupport.unpark(w.thread);
+                    }
+                }
+            }
+        }
+    }
+
+    // -1 if every word was taken, otherwise a busy resource (nothing is held then)
+    private int tryTake(Claim claim) {
+        int[] words = claim.words;
+        long[] masks = claim.masks;
+        for (int i = 0; i < words.length; i++) {
+            long mask = masks[i];
+            while (true) {
+                long current = busy.get(words[i]);
+                if ((current & mask) != 0) {
+                    if (i > 0) {
+                        for (int j = 0; j < i; j++) {
+                            clear(words[j], masks[j]); // all-or-nothing: give back what we already took...
+                        }
+                        wakeWaiters(claim); // ...and wake whoever saw them busy for that moment
+                    }
+                    return (words[i] << 6) + Long.numberOfTrailingZeros(current & mask);
+                }
+                if (busy.compareAndSet(words[i], current, current | mask)) {
+                    break;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void clear(int word, long mask) {
+        long current;
+        do {
+            current = busy.get(word);
+        } while (!busy.compareAndSet(word, current, current & ~mask));
+    }
+
+    private void push(int resource, Waiter waiter) {
+        Waiter head;
+        do {
+            head = waiters.get(resource);
+            waiter.next = head;
+        } while (!waiters.compareAndSet(resource, head, waiter));
+    }
+
+    public boolean isBusy(int resource) {
+        return (busy.get(resource >>> 6) & (1L << (resource & 63))) != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,114 @@
+package multithreading.dining_philosophers_problem;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A waiter (arbitrator) hands out BOTH forks at once, or none - so nobody ever holds one fork while waiting for
+ * the other, and deadlock is impossible.
+ *
+ * ✅ Fairness queue:
+ * Every hungry philosopher gets a ticket. The waiter only serves a philosopher whose forks are free AND whose
+ * hungry neighbours arrived later. A philosopher who waits therefore can't be overtaken by a neighbour again and
+ * again - the oldest hungry philosopher at the table is always next for its forks (no starvation).
+ *
+ * The price is the single lock all philosophers go through, however far apart they sit. Each philosopher waits
+ * on its own Condition, so a release wakes only the two neighbours instead of the whole table.
+ */
+public class WaiterStrategy implements DiningStrategy {
+
+    private final int totalPhilosophers;
+    private final ReentrantLock waiter = new ReentrantLock();
+    private final Condition[] mayEat;
+    // Guarded by waiter
+    private final boolean[] forkInUse;
+    private final long[] ticket; // 0 = not hungry
+    private long nextTicket;
+    private final LongAdder contention = new LongAdder();
+
+    public WaiterStrategy(int totalPhilosophers) {
+        this.totalPhilosophers = totalPhilosophers;
+        this.forkInUse = new boolean[totalPhilosophers];
+        this.ticket = new long[totalPhilosophers];
+        this.mayEat = new Condition[totalPhilosophers];
+        for (int i = 0; i < totalPhilosophers; i++) {
+            mayEat[i] = waiter.newCondition();
+        }
+    }
+
+    @Override
+    public String name() {
+        return "waiter";
+    }
+
+    @Override
+    public void pickUpForks(int philosopherId) throws InterruptedException {
+        waiter.lock();
+        try {
+            ticket[philosopherId] = ++nextTicket;
+            if (!canEat(philosopherId)) {
+                contention.increment();
+                try {
+                    do {
+                        mayEat[philosopherId].await();
+                    } while (!canEat(philosopherId));
+                } catch (InterruptedException e) {
+                    ticket[philosopherId] = 0;
+                    signalNeighbours(philosopherId); // we may have been holding them back
+                    throw e;
+                }
+            }
+            ticket[philosopherId] = 0;
+            forkInUse[DiningStrategy.leftFork(philosopherId)] = true;
+            forkInUse[DiningStrategy.rightFork(philosopherId, totalPhilosophers)] = true;
+        } finally {
+            waiter.unlock();
+        }
+    }
+
+    private boolean canEat(int philosopherId) {
+        if (forkInUse[DiningStrategy.leftFork(philosopherId)]
+                || forkInUse[DiningStrategy.rightFork(philosopherId, totalPhilosophers)]) {
+            return false;
+        }
+        long mine = ticket[philosopherId];
+        return !waitingLonger(leftNeighbour(philosopherId), mine) && !waitingLonger(rightNeighbour(philosopherId), mine);
+    }
+
+    private boolean waitingLonger(int neighbour, long mine) {
+        long theirs = ticket[neighbour];
+        return theirs != 0 && theirs < mine;
+    }
+
+    @Override
+    public void putDownForks(int philosopherId) {
+        waiter.lock();
+        try {
+            forkInUse[DiningStrategy.leftFork(philosopherId)] = false;
+            forkInUse[DiningStrategy.rightFork(philosopherId, totalPhilosophers)] = false;
+            signalNeighbours(philosopherId);
+        } finally {
+            waiter.unlock();
+        }
+    }
+
+    // Only the two neighbours share a fork with us
+    private void signalNeighbours(int philosopherId) {
+        mayEat[leftNeighbour(philosopherId)].signal();
+        mayEat[rightNeighbour(philosopherId)].signal();
+    }
+
+    private int leftNeighbour(int philosopherId) {
+        return (philosopherId + 1) % totalPhilosophers;
+    }
+
+    private int rightNeighbour(int philosopherId) {
+        return (philosopherId + totalPhilosophers - 1) % totalPhilosophers;
+    }
+
+    @Override
+    public long forkContention() {
+        return contention.sum();
+    }
+}
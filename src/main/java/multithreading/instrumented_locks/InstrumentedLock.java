@@ -0,0 +1,321 @@
+package multithreading.instrumented_locks;
+
+import multithreading.metrics.LogLinearHistogram;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Drop-in Lock wrapper that measures, per named lock:
+ * - acquisitions and CONTENDED acquisitions (the lock was not free right away);
+ * - wait time of every contended acquisition (histogram + total);
+ * - hold time from the outermost lock() to the matching unlock() (histogram);
+ * - the current owner (exclusive locks).
+ *
+ * Histograms are LogLinearHistograms (within 1%, up to 1 hour): one atomic increment per sample. Each (36KB) is
+ * only allocated when its first sample is recorded, so like the registration below it costs nothing until then.
+ *
+ * The free check is tryLock(0, ns) and not tryLock(): tryLock() barges even on a FAIR lock, and instrumentation
+ * must not change the lock's behaviour.
+ *
+ * The lock registers itself with LockInstrumentation on its first instrumented acquisition, not when it is
+ * created - a lock per object costs nothing in the registry until it is actually measured.
+ *
+ * While LockInstrumentation is disabled everything goes straight to the real lock. Switching it on or off while
+ * the lock is held may lose that one hold time, nothing else.
+ *
+ * Conditions from newCondition() pause the hold time while await()ing, since the lock is released meanwhile.
+ */
+public class InstrumentedLock implements Lock {
+
+    private final String name;
+    private final Lock delegate;
+    private final boolean shared; // read lock: many holders, hold state per thread
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicReference<LogLinearHistogram> waitTimes = new AtomicReference<>();
+    private final AtomicReference<LogLinearHistogram> holdTimes = new AtomicReference<>();
+
+    // Exclusive locks: written only by the thread holding the lock
+    private int depth;
+    private long holdStart;
+    private volatile Thread owner;
+
+    private boolean registered; // a racy double registration is harmless, the registry is a set
+
+    // Shared locks: {depth, holdStart} per thread
+    private final ThreadLocal<long[]> sharedHold;
+
+    public InstrumentedLock(String name) {
+        this(name, new ReentrantLock());
+    }
+
+    public InstrumentedLock(String name, Lock delegate) {
+        this(name, delegate, false);
+    }
+
+    InstrumentedLock(String name, Lock delegate, boolean shared) {
+        this.name = name;
+        this.delegate = delegate;
+        this.shared = shared;
+        this.sharedHold = shared ? ThreadLocal.withInitial(() -> new long[2]) : null;
+    }
+
+    @Override
+    public void lock() {
+        if (!LockInstrumentation.isEnabled()) {
+            delegate.lock();
+            return;
+        }
+        boolean free;
+        try {
+            free = delegate.tryLock(0, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // lock() must not throw: keep the flag, take the slow path
+            free = false;
+        }
+        if (!free) {
+            long start = System.nanoTime();
+            delegate.lock();
+            recordWait(System.nanoTime() - start);
+        }
+        acquired();
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        if (!LockInstrumentation.isEnabled()) {
+            delegate.lockInterruptibly();
+            return;
+        }
+        if (!delegate.tryLock(0, TimeUnit.NANOSECONDS)) {
+            long start = System.nanoTime();
+            try {
+                delegate.lockInterruptibly();
+            } finally {
+                recordWait(System.nanoTime() - start);
+            }
+        }
+        acquired();
+    }
+
+    @Override
+    public boolean tryLock() {
+        boolean locked = delegate.tryLock();
+        if (locked && LockInstrumentation.isEnabled()) {
+            acquired();
+        }
+        return locked;
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+        if (!LockInstrumentation.isEnabled()) {
+            return delegate.tryLock(time, unit);
+        }
+        if (!delegate.tryLock(0, TimeUnit.NANOSECONDS)) {
+            long start = System.nanoTime();
+            boolean locked = false;
+            try {
+                locked = delegate.tryLock(time, unit);
+            } finally {
+                recordWait(System.nanoTime() - start);
+            }
+            if (!locked) {
+                return false;
+            }
+        }
+        acquired();
+        return true;
+    }
+
+    @Override
+    public void unlock() {
+        if (LockInstrumentation.isEnabled()) {
+            released();
+        } else if (!shared && depth > 0 && --depth == 0) {
+            // Locked while instrumentation was on: keep the nesting count right, and don't report a stale owner
+            owner = null;
+        }
+        delegate.unlock();
+    }
+
+    @Override
+    public Condition newCondition() {
+        return new InstrumentedCondition(delegate.newCondition());
+    }
+
+    private void recordWait(long nanos) {
+        contended.increment();
+        totalWaitNanos.add(nanos);
+        histogram(waitTimes).record(nanos);
+    }
+
+    private void acquired() {
+        if (!registered) {
+            registered = true;
+            LockInstrumentation.register(this);
+        }
+        acquisitions.increment();
+        if (shared) {
+            long[] hold = sharedHold.get();
+            if (hold[0]++ == 0) {
+                hold[1] = System.nanoTime();
+            }
+        } else if (depth++ == 0) {
+            holdStart = System.nanoTime();
+            owner = Thread.currentThread();
+        }
+    }
+
+    private void released() {
+        if (shared) {
+            long[] hold = sharedHold.get();
+            if (hold[0] > 0 && --hold[0] == 0) {
+                histogram(holdTimes).record(System.nanoTime() - hold[1]);
+            }
+        } else if (depth > 0 && --depth == 0) {
+            owner = null;
+            histogram(holdTimes).record(System.nanoTime() - holdStart);
+        }
+    }
+
+    // Pauses the hold time while the lock is given up in await()
+    private final class InstrumentedCondition implements Condition {
+        private final Condition condition;
+
+        InstrumentedCondition(Condition condition) {
+            this.condition = condition;
+        }
+
+        private int suspend() {
+            int saved = depth;
+            if (LockInstrumentation.isEnabled() && saved > 0) {
+                histogram(holdTimes).record(System.nanoTime() - holdStart);
+                owner = null;
+            }
+            depth = 0;
+            return saved;
+        }
+
+        private void resume(int saved) {
+            depth = saved;
+            if (saved > 0 && LockInstrumentation.isEnabled()) {
+                holdStart = System.nanoTime();
+                owner = Thread.currentThread();
+            }
+        }
+
+        @Override
+        public void await() throws InterruptedException {
+            int saved = suspend();
+            try {
+                condition.await();
+            } finally {
+                resume(saved);
+            }
+        }
+
+        @Override
+        public void awaitUninterruptibly() {
+            int saved = suspend();
+            try {
+                condition.awaitUninterruptibly();
+            } finally {
+                resume(saved);
+            }
+        }
+
+        @Override
+        public long awaitNanos(long nanosTimeout) throws InterruptedException {
+            int saved = suspend();
+            try {
+                return condition.awaitNanos(nanosTimeout);
+            } finally {
+                resume(saved);
+            }
+        }
+
+        @Override
+        public boolean await(long time, TimeUnit unit) throws InterruptedException {
+            int saved = suspend();
+            try {
+                return condition.await(time, unit);
+            } finally {
+                resume(saved);
+            }
+        }
+
+        @Override
+        public boolean awaitUntil(Date deadline) throws InterruptedException {
+            int saved = suspend();
+            try {
+                return condition.awaitUntil(deadline);
+            } finally {
+                resume(saved);
+            }
+        }
+
+        @Override
+        public void signal() {
+            condition.signal();
+        }
+
+        @Override
+        public void signalAll() {
+            condition.signalAll();
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public long acquisitions() {
+        return acquisitions.sum();
+    }
+
+    public long contendedAcquisitions() {
+        return contended.sum();
+    }
+
+    public long totalWaitNanos() {
+        return totalWaitNanos.sum();
+    }
+
+    public LogLinearHistogram waitTimes() {
+        return histogram(waitTimes);
+    }
+
+    public LogLinearHistogram holdTimes() {
+        return histogram(holdTimes);
+    }
+
+    private static LogLinearHistogram histogram(AtomicReference<LogLinearHistogram> ref) {
+        LogLinearHistogram histogram = ref.get();
+        if (histogram == null) {
+            LogLinearHistogram created = LogLinearHistogram.forLatencies(1, TimeUnit.HOURS, 2);
+            histogram = ref.compareAndSet(null, created) ? created : ref.get();
+        }
+        return histogram;
+    }
+
+    /**
+     * The thread holding the lock right now, as far as instrumentation saw it (null for read locks).
+     */
+    public Thread owner() {
+        return owner;
+    }
+
+    @Override
+    public String toString() {
+        return "InstrumentedLock[" + name + "]";
+    }
+}
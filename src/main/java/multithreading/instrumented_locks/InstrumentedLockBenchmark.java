@@ -0,0 +1,53 @@
+package multithreading.instrumented_locks;
+
+import multithreading.benchmark.BenchmarkHarness;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * What the instrumentation costs: a counter++ under a bare ReentrantLock, under an InstrumentedLock with
+ * instrumentation off, and with it on.
+ *
+ * Usage: InstrumentedLockBenchmark [millisPerRun]
+ */
+public class InstrumentedLockBenchmark {
+
+    private static long counter;
+
+    public static void main(String[] args) throws InterruptedException {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        int maxThreads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+        System.out.printf("%-28s %8s %14s%n", "lock", "threads", "ops/sec");
+        for (int threads : BenchmarkHarness.powersOfTwo(maxThreads)) {
+            for (String mode : new String[]{"ReentrantLock", "InstrumentedLock (off)", "InstrumentedLock (on)"}) {
+                Lock lock = mode.equals("ReentrantLock") ? new ReentrantLock() : new InstrumentedLock("benchmark-" + threads);
+                if (mode.endsWith("(on)")) {
+                    LockInstrumentation.enable();
+                } else {
+                    LockInstrumentation.disable();
+                }
+                run(lock, threads, millis / 5); // warm-up
+                System.out.printf("%-28s %8d %,14d%n", mode, threads, run(lock, threads, millis));
+            }
+        }
+        LockInstrumentation.enable();
+        System.out.println();
+        System.out.print(LockInstrumentation.topContended(3));
+    }
+
+    private static long run(Lock lock, int threads, long millis) throws InterruptedException {
+        return BenchmarkHarness.run(threads, millis, index -> () -> {
+            for (int i = 0; i < BenchmarkHarness.BATCH_SIZE; i++) {
+                lock.lock();
+                try {
+                    counter++;
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return BenchmarkHarness.BATCH_SIZE;
+        }).perSecond();
+    }
+}
@@ -0,0 +1,34 @@
+package multithreading.instrumented_locks;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Drop-in ReadWriteLock wrapper: the read and the write side are two InstrumentedLocks, reported as
+ * "name.read" and "name.write" - a hot read side and a hot write side call for different fixes.
+ */
+public class InstrumentedReadWriteLock implements ReadWriteLock {
+
+    private final InstrumentedLock readLock;
+    private final InstrumentedLock writeLock;
+
+    public InstrumentedReadWriteLock(String name) {
+        this(name, new ReentrantReadWriteLock());
+    }
+
+    public InstrumentedReadWriteLock(String name, ReadWriteLock delegate) {
+        this.readLock = new InstrumentedLock(name + ".read", delegate.readLock(), true);
+        this.writeLock = new InstrumentedLock(name + ".write", delegate.writeLock());
+    }
+
+    @Override
+    public Lock readLock() {
+        return readLock;
+    }
+
+    @Override
+    public Lock writeLock() {
+        return writeLock;
+    }
+}
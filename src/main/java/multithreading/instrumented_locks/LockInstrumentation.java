@@ -0,0 +1,75 @@
+package multithreading.instrumented_locks;
+
+import multithreading.metrics.LogLinearHistogram;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Global switch and registry for InstrumentedLock / InstrumentedReadWriteLock.
+ *
+ * Off by default. While off, a wrapped lock() / unlock() costs one extra volatile read on top of the real lock,
+ * so the wrappers can stay in production code and be switched on when a lock is suspected to be hot.
+ *
+ * A lock joins the registry on its first acquisition while instrumentation is on (locks never used while it was
+ * on have nothing to report), and the registry only holds it WEAKLY: per-object locks that are no longer used
+ * are garbage collected as usual instead of being kept alive by the report.
+ */
+public final class LockInstrumentation {
+
+    private static volatile boolean enabled;
+    private static final Set<InstrumentedLock> locks = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private LockInstrumentation() {
+    }
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static void disable() {
+        enabled = false;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    static void register(InstrumentedLock lock) {
+        locks.add(lock);
+    }
+
+    public static List<InstrumentedLock> locks() {
+        synchronized (locks) {
+            return new ArrayList<>(locks);
+        }
+    }
+
+    /**
+     * The `top` locks threads waited for the longest in total, one line each.
+     */
+    public static String topContended(int top) {
+        StringBuilder report = new StringBuilder(String.format("%-32s %12s %12s %9s %14s %12s %12s %12s  %s%n",
+                "lock", "acquisitions", "contended", "ratio", "total wait", "p99 wait", "p99 hold", "max hold", "owner"));
+        locks().stream()
+                .sorted(Comparator.comparingLong(InstrumentedLock::totalWaitNanos).reversed()
+                        .thenComparing(Comparator.comparingLong(InstrumentedLock::contendedAcquisitions).reversed()))
+                .limit(top)
+                .forEach(lock -> {
+                    long acquisitions = lock.acquisitions();
+                    Thread owner = lock.owner();
+                    LogLinearHistogram.Snapshot holds = lock.holdTimes().snapshot();
+                    report.append(String.format("%-32s %,12d %,12d %8.2f%% %,12dus %,10dns %,10dns %,10dns  %s%n",
+                            lock.name(), acquisitions, lock.contendedAcquisitions(),
+                            acquisitions == 0 ? 0.0 : 100.0 * lock.contendedAcquisitions() / acquisitions,
+                            lock.totalWaitNanos() / 1_000, lock.waitTimes().snapshot().percentile(99),
+                            holds.percentile(99), holds.max(),
+                            owner == null ? "-" : owner.getName()));
+                });
+        return report.toString();
+    }
+}
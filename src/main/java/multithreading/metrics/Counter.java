@@ -0,0 +1,33 @@
+package multithreading.metrics;
+
+import multithreading.race_condition.avoiding_strategy.StripedCounter;
+
+/**
+ * Monotonic counter. increment() is one CAS on a per-thread stripe (StripedCounter) - no lock, and threads on
+ * different cores don't share a cache line - so it can sit on any hot path.
+ */
+public final class Counter {
+
+    private final StripedCounter cells = new StripedCounter();
+
+    Counter() {
+    }
+
+    public void increment() {
+        cells.add(1);
+    }
+
+    public void add(long amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Counters only go up: " + amount);
+        }
+        cells.add(amount);
+    }
+
+    /**
+     * Merges the stripes; not an atomic snapshot while other threads keep incrementing.
+     */
+    public long count() {
+        return cells.sum();
+    }
+}
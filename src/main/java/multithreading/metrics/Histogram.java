@@ -0,0 +1,116 @@
+package multithreading.metrics;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram with 2 significant digits (every value within 1%), striped so that recording threads
+ * don't fight over the same cache lines.
+ *
+ * ✅ Layout: up to 8 LogLinearHistogram STRIPES, plus an exact sum and max:
+ *
+ *     [ stripe 0 ] [ stripe 1 ] ... [ stripe 7 ]   sum (LongAdder)   max (LongAccumulator)
+ *
+ * A thread always records into the stripe picked by its id, so record() is one atomic increment in its own
+ * stripe, a LongAdder add and - only for a new maximum - a CAS. A stripe (58KB for the full long range) is
+ * only allocated once a thread records into it, so a histogram that is written by one thread costs one stripe.
+ * snapshot() merges all stripes.
+ *
+ * Percentiles are the upper end of their 1% slot (capped by the exact max) - what the Prometheus quantiles
+ * report, so "p99 = 1,234,000ns" really is 1.234ms and not "somewhere between 0.5 and 1ms".
+ */
+public final class Histogram {
+
+    private static final int SIGNIFICANT_DIGITS = 2;
+    private static final int MAX_STRIPES = 8;
+
+    private final long highestTrackableValue;
+    private final AtomicReferenceArray<LogLinearHistogram> stripes;
+    private final int mask;
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    Histogram() {
+        this(Long.MAX_VALUE);
+    }
+
+    Histogram(long highestTrackableValue) {
+        this.highestTrackableValue = highestTrackableValue;
+        int stripes = Math.min(MAX_STRIPES, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+        this.stripes = new AtomicReferenceArray<>(stripes);
+        this.mask = stripes - 1;
+    }
+
+    public void record(long value) {
+        long v = Math.max(0, value);
+        stripe().record(v);
+        sum.add(v);
+        max.accumulate(v);
+    }
+
+    private LogLinearHistogram stripe() {
+        int index = (int) (Thread.currentThread().getId() * 0x9E3779B97F4A7C15L >>> 32) & mask;
+        LogLinearHistogram stripe = stripes.get(index);
+        if (stripe == null) {
+            LogLinearHistogram created = new LogLinearHistogram(highestTrackableValue, SIGNIFICANT_DIGITS);
+            stripe = stripes.compareAndSet(index, null, created) ? created : stripes.get(index);
+        }
+        return stripe;
+    }
+
+    public Snapshot snapshot() {
+        LogLinearHistogram.Snapshot merged = null;
+        for (int i = 0; i < stripes.length(); i++) {
+            LogLinearHistogram stripe = stripes.get(i);
+            if (stripe != null) {
+                merged = merged == null ? stripe.snapshot() : merged.merge(stripe.snapshot());
+            }
+        }
+        return new Snapshot(merged, sum.sum(), max.get());
+    }
+
+    /**
+     * Merged, immutable view of the stripes at one moment.
+     */
+    public static final class Snapshot {
+        private final LogLinearHistogram.Snapshot counts; // null: nothing recorded yet
+        private final long sum;
+        private final long max;
+
+        private Snapshot(LogLinearHistogram.Snapshot counts, long sum, long max) {
+            this.counts = counts;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long count() {
+            return counts == null ? 0 : counts.count();
+        }
+
+        public long sum() {
+            return sum;
+        }
+
+        public long max() {
+            return max;
+        }
+
+        public double mean() {
+            long count = count();
+            return count == 0 ? 0.0 : (double) sum / count;
+        }
+
+        /**
+         * Value at the given percentile within 1% (capped by the max), e.g. percentile(99.0).
+         */
+        public long percentile(double percentile) {
+            return counts == null ? 0 : Math.min(counts.percentile(percentile), max);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%,d mean=%,.0f p50=%,d p99=%,d max=%,d", count(), mean(), percentile(50), percentile(99), max);
+        }
+    }
+}
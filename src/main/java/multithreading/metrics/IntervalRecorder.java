@@ -0,0 +1,52 @@
+package multithreading.metrics;
+
+/**
+ * Per-interval latency reporting ("p99 over the last second") on top of LogLinearHistogram, where the reader
+ * never blocks the writers.
+ *
+ * ✅ Double buffering:
+ * Two histograms; writers record into the ACTIVE one (a volatile read + one atomic increment). intervalSnapshot()
+ * flips `active` to the other histogram and reads the one writers just left - which now only receives the few
+ * records of writers that fetched `active` right before the flip.
+ *
+ * Nothing is cleared, so those stragglers aren't lost either: every histogram remembers the counts already
+ * reported, and an interval is "counts now - counts reported last time". A straggler is simply reported with
+ * the next interval that reads its histogram (two intervals later). No writer ever waits, spins or retries -
+ * unlike a swap-and-clear, which has to wait for in-flight writers before clearing.
+ *
+ * Readers are serialized among themselves (synchronized), which is fine: a reporter thread every few seconds.
+ */
+public class IntervalRecorder {
+
+    private final LogLinearHistogram[] histograms;
+    private final long[][] reported;    // guarded by this
+    private volatile int active;
+
+    public IntervalRecorder(long highestTrackableValue, int significantDigits) {
+        this.histograms = new LogLinearHistogram[]{
+                new LogLinearHistogram(highestTrackableValue, significantDigits),
+                new LogLinearHistogram(highestTrackableValue, significantDigits)};
+        this.reported = new long[][]{new long[histograms[0].slots()], new long[histograms[1].slots()]};
+    }
+
+    public void record(long value) {
+        histograms[active].record(value);
+    }
+
+    /**
+     * Everything recorded since the previous call (the first call: since construction).
+     */
+    public synchronized LogLinearHistogram.Snapshot intervalSnapshot() {
+        int previous = active;
+        active = 1 - previous;
+        LogLinearHistogram inactive = histograms[previous];
+        long[] now = inactive.copyCounts();
+        long[] last = reported[previous];
+        long[] interval = new long[now.length];
+        for (int i = 0; i < now.length; i++) {
+            interval[i] = now[i] - last[i];
+        }
+        reported[previous] = now;
+        return new LogLinearHistogram.Snapshot(inactive, interval);
+    }
+}
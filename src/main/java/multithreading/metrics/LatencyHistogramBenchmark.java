@@ -0,0 +1,125 @@
+package multithreading.metrics;
+
+import multithreading.benchmark.BenchmarkHarness;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongConsumer;
+
+/**
+ * LogLinearHistogram, measured:
+ * 1. accuracy: percentiles of a long-tailed latency distribution vs. the exact values (sorted array), for
+ *    power-of-two buckets (the bucket's upper bound, what a one-counter-per-power histogram reports) and
+ *    LogLinearHistogram at 2 and 3 significant digits;
+ * 2. recording throughput of the histograms from 1 to 2x cores threads - IntervalRecorder with a reporter
+ *    thread taking an interval snapshot every 10ms the whole time, checking that no record gets lost.
+ *
+ * Usage: LatencyHistogramBenchmark [millisPerRun]
+ */
+public class LatencyHistogramBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 500;
+        accuracy();
+        throughput(millis);
+    }
+
+    private static void accuracy() {
+        Random random = new Random(42);
+        long[] values = new long[1_000_000];
+        for (int i = 0; i < values.length; i++) {
+            // ~20µs typical, long tail up to seconds
+            values[i] = (long) Math.min(TimeUnit.MINUTES.toNanos(1), Math.exp(random.nextGaussian() * 1.5 + Math.log(20_000)));
+        }
+        LogLinearHistogram twoDigits = LogLinearHistogram.forLatencies(1, TimeUnit.HOURS, 2);
+        LogLinearHistogram threeDigits = LogLinearHistogram.forLatencies(1, TimeUnit.HOURS, 3);
+        for (long value : values) {
+            twoDigits.record(value);
+            threeDigits.record(value);
+        }
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        LogLinearHistogram.Snapshot two = twoDigits.snapshot();
+        LogLinearHistogram.Snapshot three = threeDigits.snapshot();
+
+        System.out.printf("Accuracy (1M values; slots: log-linear 2 digits=%,d, 3 digits=%,d)%n", twoDigits.slots(), threeDigits.slots());
+        System.out.printf("%-8s %16s %22s %22s %22s%n", "pctl", "exact ns", "power of two", "log-linear 2 digits", "log-linear 3 digits");
+        for (double p : new double[]{50, 90, 99, 99.9, 99.99}) {
+            long exact = sorted[(int) Math.ceil(p / 100 * sorted.length) - 1];
+            System.out.printf("%-8s %,16d %s %s %s%n", "p" + p, exact,
+                    withError(powerOfTwoBucket(exact, sorted[sorted.length - 1]), exact), withError(two.percentile(p), exact), withError(three.percentile(p), exact));
+        }
+        System.out.println();
+    }
+
+    // Upper bound of the bucket [2^(i-1), 2^i) holding the value, capped by the max
+    private static long powerOfTwoBucket(long value, long max) {
+        return Math.min(Long.highestOneBit(value) << 1, max);
+    }
+
+    private static String withError(long value, long exact) {
+        return String.format("%,14d (%+5.1f%%)", value, 100.0 * (value - exact) / exact);
+    }
+
+    private static void throughput(long millis) throws InterruptedException {
+        int maxThreads = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+        System.out.printf("%-22s %8s %14s%n", "histogram", "threads", "records/sec");
+        for (int threads : BenchmarkHarness.powersOfTwo(maxThreads)) {
+            Histogram striped = new Histogram();
+            LogLinearHistogram logLinear = LogLinearHistogram.forLatencies(1, TimeUnit.HOURS, 2);
+            report("metrics.Histogram", threads, run(striped::record, threads, millis));
+            report("LogLinearHistogram", threads, run(logLinear::record, threads, millis));
+
+            IntervalRecorder recorder = new IntervalRecorder(TimeUnit.HOURS.toNanos(1), 2);
+            AtomicBoolean running = new AtomicBoolean(true);
+            long[] reported = new long[1];
+            Thread reporter = new Thread(() -> {
+                while (running.get()) {
+                    reported[0] += recorder.intervalSnapshot().count();
+                    try {
+                        Thread.sleep(10);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            });
+            reporter.start();
+            long[] recorded = new long[1];
+            long opsPerSec = run(recorder::record, threads, millis, recorded);
+            running.set(false);
+            reporter.join();
+            reported[0] += recorder.intervalSnapshot().count() + recorder.intervalSnapshot().count(); // stragglers
+            report("IntervalRecorder", threads, opsPerSec);
+            if (reported[0] != recorded[0]) {
+                throw new IllegalStateException("Lost records: recorded " + recorded[0] + ", reported " + reported[0]);
+            }
+            System.out.println();
+        }
+    }
+
+    private static void report(String name, int threads, long opsPerSec) {
+        System.out.printf("%-22s %8d %,14d%n", name, threads, opsPerSec);
+    }
+
+    private static long run(LongConsumer histogram, int threads, long millis) throws InterruptedException {
+        return run(histogram, threads, millis, new long[1]);
+    }
+
+    private static long run(LongConsumer histogram, int threads, long millis, long[] recorded) throws InterruptedException {
+        BenchmarkHarness.Result result = BenchmarkHarness.run(threads, millis, index -> {
+            long[] value = {1_000 + index};
+            return () -> {
+                for (int i = 0; i < BenchmarkHarness.BATCH_SIZE; i++) {
+                    histogram.accept(value[0]);
+                    long next = value[0] * 6364136223846793005L + 1442695040888963407L; // LCG: spread over slots
+                    value[0] = (next >>> 40) + 100;
+                }
+                return BenchmarkHarness.BATCH_SIZE;
+            };
+        });
+        recorded[0] = result.operations();
+        return result.perSecond();
+    }
+}
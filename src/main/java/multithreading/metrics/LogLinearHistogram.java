@@ -0,0 +1,253 @@
+package multithreading.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-memory, lock-free latency histogram with a configurable precision over a huge range - nanoseconds to
+ * minutes - in the spirit of HdrHistogram.
+ *
+ * Power-of-two buckets are cheap, but "p99 = 1,048,576ns" really means "somewhere between 0.5 and 1ms".
+ * Linear buckets would be exact but need a bucket per nanosecond. Log-linear is both:
+ *
+ * ✅ Layout: the range is cut into power-of-two BUCKETS ([0, 2S), [2S, 4S), [4S, 8S) ... with S sub-buckets), and
+ * every bucket is cut into S/2 equal SUB-BUCKETS. So a value is always stored with the same RELATIVE error,
+ * at most 1 / (S/2):
+ *
+ *     significantDigits = 2 → S = 256 → values within 1%    (1,234,567ns is recorded as 1,232,896..1,236,991)
+ *     significantDigits = 3 → S = 2048 → values within 0.1%
+ *
+ * Finding the slot is a few shifts (numberOfLeadingZeros), no search and no floating point.
+ * 1ns to 1 hour at 2 digits = 36 buckets x 128 sub-buckets = 4,608 counters (36KB), allocated once.
+ *
+ * ✅ Recording = ONE atomic increment (counts.getAndIncrement(slot)). Total count, min, max and mean are derived
+ * from the counts when a snapshot is taken, so they cost nothing per record.
+ *
+ * Values below 0 are recorded as 0, values above highestTrackableValue as highestTrackableValue.
+ * For interval (per-second ...) reporting use IntervalRecorder; to combine threads or processes merge snapshots.
+ */
+public class LogLinearHistogram {
+
+    private final long highestTrackableValue;
+    private final int significantDigits;
+    private final int subBucketCount;
+    private final int subBucketHalfCount;
+    private final int subBucketHalfCountMagnitude;
+    private final long subBucketMask;
+    private final int leadingZeroCountBase;
+    private final AtomicLongArray counts;
+
+    public LogLinearHistogram(long highestTrackableValue, int significantDigits) {
+        if (significantDigits < 1 || significantDigits > 5) {
+            throw new IllegalArgumentException("significantDigits must be 1..5: " + significantDigits);
+        }
+        if (highestTrackableValue < 2) {
+            throw new IllegalArgumentException("highestTrackableValue must be >= 2: " + highestTrackableValue);
+        }
+        this.highestTrackableValue = highestTrackableValue;
+        this.significantDigits = significantDigits;
+        long largestSingleUnitResolution = 2 * (long) Math.pow(10, significantDigits);
+        int subBucketCountMagnitude = (int) Math.ceil(Math.log(largestSingleUnitResolution) / Math.log(2));
+        this.subBucketHalfCountMagnitude = subBucketCountMagnitude - 1;
+        this.subBucketCount = 1 << subBucketCountMagnitude;
+        this.subBucketHalfCount = subBucketCount / 2;
+        this.subBucketMask = subBucketCount - 1;
+        this.leadingZeroCountBase = 64 - subBucketHalfCountMagnitude - 1;
+
+        int bucketCount = 1;
+        long smallestUntrackable = subBucketCount;
+        while (smallestUntrackable <= highestTrackableValue) {
+            if (smallestUntrackable > Long.MAX_VALUE / 2) {
+                bucketCount++;
+                break;
+            }
+            smallestUntrackable <<= 1;
+            bucketCount++;
+        }
+        this.counts = new AtomicLongArray((bucketCount + 1) * subBucketHalfCount);
+    }
+
+    /**
+     * Nanosecond latencies from 1ns up to the given maximum, e.g. forLatencies(1, TimeUnit.HOURS, 2).
+     */
+    public static LogLinearHistogram forLatencies(long max, TimeUnit unit, int significantDigits) {
+        return new LogLinearHistogram(unit.toNanos(max), significantDigits);
+    }
+
+    public void record(long value) {
+        counts.getAndIncrement(indexOf(value));
+    }
+
+    /**
+     * Records the same value `times` times (e.g. to correct for coordinated omission, or to import counts).
+     */
+    public void record(long value, long times) {
+        counts.getAndAdd(indexOf(value), times);
+    }
+
+    /**
+     * Adds all counts of a snapshot (of a histogram with the same configuration) - merging threads/intervals.
+     */
+    public void add(Snapshot snapshot) {
+        checkCompatible(snapshot);
+        long[] other = snapshot.counts;
+        for (int i = 0; i < other.length; i++) {
+            if (other[i] != 0) {
+                counts.getAndAdd(i, other[i]);
+            }
+        }
+    }
+
+    /**
+     * Copy of the counts. Concurrent records may or may not be included, each of them is either fully in or out.
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(this, copyCounts());
+    }
+
+    long[] copyCounts() {
+        long[] copy = new long[counts.length()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counts.get(i);
+        }
+        return copy;
+    }
+
+    public long highestTrackableValue() {
+        return highestTrackableValue;
+    }
+
+    public int significantDigits() {
+        return significantDigits;
+    }
+
+    /**
+     * Number of counters, i.e. the fixed memory footprint in longs.
+     */
+    public int slots() {
+        return counts.length();
+    }
+
+    // ---------------------------------------------------------------- slot arithmetic
+
+    int indexOf(long value) {
+        long v = Math.min(Math.max(0, value), highestTrackableValue);
+        int bucketIndex = leadingZeroCountBase - Long.numberOfLeadingZeros(v | subBucketMask);
+        int subBucketIndex = (int) (v >>> bucketIndex);
+        return ((bucketIndex + 1) << subBucketHalfCountMagnitude) + (subBucketIndex - subBucketHalfCount);
+    }
+
+    long lowestEquivalentValue(int index) {
+        int bucketIndex = (index >> subBucketHalfCountMagnitude) - 1;
+        int subBucketIndex = (index & (subBucketHalfCount - 1)) + subBucketHalfCount;
+        if (bucketIndex < 0) {
+            subBucketIndex -= subBucketHalfCount;
+            bucketIndex = 0;
+        }
+        return (long) subBucketIndex << bucketIndex;
+    }
+
+    long highestEquivalentValue(int index) {
+        int bucketIndex = Math.max(0, (index >> subBucketHalfCountMagnitude) - 1);
+        return lowestEquivalentValue(index) + (1L << bucketIndex) - 1;
+    }
+
+    private void checkCompatible(Snapshot snapshot) {
+        if (snapshot.counts.length != counts.length() || snapshot.subBucketCount != subBucketCount) {
+            throw new IllegalArgumentException("Histograms have different ranges or precision");
+        }
+    }
+
+    /**
+     * Immutable counts at one moment (or of one interval), with percentiles computed from them.
+     */
+    public static final class Snapshot {
+        private final LogLinearHistogram layout;
+        private final int subBucketCount;
+        private final long[] counts;
+        private final long totalCount;
+
+        Snapshot(LogLinearHistogram layout, long[] counts) {
+            this.layout = layout;
+            this.subBucketCount = layout.subBucketCount;
+            this.counts = counts;
+            long total = 0;
+            for (long count : counts) {
+                total += count;
+            }
+            this.totalCount = total;
+        }
+
+        /**
+         * Sum of both snapshots, e.g. the per-thread histograms of a benchmark.
+         */
+        public Snapshot merge(Snapshot other) {
+            layout.checkCompatible(other);
+            long[] sum = counts.clone();
+            for (int i = 0; i < sum.length; i++) {
+                sum[i] += other.counts[i];
+            }
+            return new Snapshot(layout, sum);
+        }
+
+        public long count() {
+            return totalCount;
+        }
+
+        /**
+         * Value at the given percentile (0..100), reported as the highest value of its slot - "at most".
+         */
+        public long percentile(double percentile) {
+            if (totalCount == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(Math.min(100.0, percentile) / 100.0 * totalCount));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(layout.highestEquivalentValue(i), layout.highestTrackableValue);
+                }
+            }
+            return max();
+        }
+
+        public long min() {
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    return layout.lowestEquivalentValue(i);
+                }
+            }
+            return 0;
+        }
+
+        public long max() {
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] != 0) {
+                    return Math.min(layout.highestEquivalentValue(i), layout.highestTrackableValue);
+                }
+            }
+            return 0;
+        }
+
+        public double mean() {
+            if (totalCount == 0) {
+                return 0.0;
+            }
+            double sum = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    long low = layout.lowestEquivalentValue(i);
+                    sum += counts[i] * (low + (layout.highestEquivalentValue(i) - low) / 2.0); // middle of the slot
+                }
+            }
+            return sum / totalCount;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%,d min=%,d p50=%,d p90=%,d p99=%,d p99.9=%,d max=%,d mean=%,.1f",
+                    totalCount, min(), percentile(50), percentile(90), percentile(99), percentile(99.9), max(), mean());
+        }
+    }
+}
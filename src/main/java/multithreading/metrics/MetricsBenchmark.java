@@ -0,0 +1,73 @@
+package multithreading.metrics;
+
+import multithreading.benchmark.BenchmarkHarness;
+import multithreading.semaphore.ResourcePool;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * What recording costs: Counter.increment(), Histogram.record() and a Timer start/stop, next to a single shared
+ * AtomicLong - and a ResourcePool borrow/return with and without being bound to a registry.
+ *
+ * Usage: MetricsBenchmark [millisPerRun]
+ */
+public class MetricsBenchmark {
+
+    interface Operation {
+        void run(int i) throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 500;
+        int maxThreads = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+        MetricsRegistry registry = new MetricsRegistry();
+
+        AtomicLong atomic = new AtomicLong();
+        Counter counter = registry.counter("bench_total", "benchmark");
+        Histogram histogram = registry.histogram("bench_values", "benchmark");
+        Timer timer = registry.timer("bench_seconds", "benchmark");
+        ResourcePool<Object> unbound = ResourcePool.builder(Object::new).maxSize(maxThreads).build();
+        ResourcePool<Object> bound = ResourcePool.builder(Object::new).maxSize(maxThreads).build();
+        bound.bindTo(registry, "pool", "bench");
+
+        String[] names = {"AtomicLong (shared)", "Counter", "Histogram", "Timer start/stop",
+                "ResourcePool (unbound)", "ResourcePool (bound)"};
+        Operation[] operations = {
+                i -> atomic.incrementAndGet(),
+                i -> counter.increment(),
+                i -> histogram.record(i),
+                i -> timer.stop(timer.start()),
+                i -> borrowAndReturn(unbound),
+                i -> borrowAndReturn(bound),
+        };
+
+        System.out.printf("%-24s %8s %16s %10s%n", "operation", "threads", "ops/sec", "ns/op");
+        for (int threads : BenchmarkHarness.powersOfTwo(maxThreads)) {
+            for (int k = 0; k < names.length; k++) {
+                run(operations[k], threads, millis / 5); // warm-up
+                long opsPerSec = run(operations[k], threads, millis);
+                System.out.printf("%-24s %8d %,16d %10.1f%n", names[k], threads, opsPerSec, 1e9 * threads / opsPerSec);
+            }
+            System.out.println();
+        }
+        unbound.close();
+        bound.close();
+        System.out.print(registry.scrape());
+    }
+
+    private static void borrowAndReturn(ResourcePool<Object> pool) throws Exception {
+        try (ResourcePool<Object>.Pooled pooled = pool.borrow(1, TimeUnit.SECONDS)) {
+            pooled.get();
+        }
+    }
+
+    private static long run(Operation operation, int threads, long millis) throws InterruptedException {
+        return BenchmarkHarness.run(threads, millis, index -> () -> {
+            for (int i = 0; i < BenchmarkHarness.BATCH_SIZE; i++) {
+                operation.run(i);
+            }
+            return BenchmarkHarness.BATCH_SIZE;
+        }).perSecond();
+    }
+}
@@ -0,0 +1,110 @@
+package multithreading.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves MetricsRegistry.scrape() at http://127.0.0.1:{port}/metrics with the JDK's built-in HTTP server.
+ *
+ * Bound to the loopback address only - metrics often reveal more than they should, so exposing them to the
+ * network is a deliberate decision (a reverse proxy), not a default. One daemon thread serves the requests:
+ * a scrape every few seconds doesn't need more, and it never competes with the application's threads.
+ */
+public class MetricsHttpServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private MetricsHttpServer(MetricsRegistry registry, int port) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "metrics-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.createContext("/metrics", exchange -> respond(exchange, registry));
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * @param port 0 picks a free port, see port()
+     */
+    public static MetricsHttpServer start(MetricsRegistry registry, int port) throws IOException {
+        return new MetricsHttpServer(registry, port);
+    }
+
+    private static void respond(HttpExchange exchange, MetricsRegistry registry) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = registry.scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Records some traffic from a few threads, then fetches /metrics over HTTP like Prometheus would.
+     */
+    public static void main(String[] args) throws Exception {
+        MetricsRegistry registry = MetricsRegistry.global();
+        Counter requests = registry.counter("demo_requests_total", "Requests handled", "handler", "hello");
+        Timer latency = registry.timer("demo_request_duration_seconds", "Request latency", "handler", "hello");
+        Histogram sizes = registry.histogram("demo_response_size_bytes", "Response sizes");
+        registry.gauge("demo_threads", "Live threads in the JVM", () -> Thread.activeCount());
+
+        Thread[] workers = new Thread[4];
+        for (int t = 0; t < workers.length; t++) {
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    long start = latency.start();
+                    requests.increment();
+                    sizes.record(100 + (i % 1000));
+                    latency.stop(start);
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        try (MetricsHttpServer server = MetricsHttpServer.start(registry, 0)) {
+            URL url = new URL("http://127.0.0.1:" + server.port() + "/metrics");
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setConnectTimeout((int) TimeUnit.SECONDS.toMillis(2));
+            try (InputStream in = connection.getInputStream()) {
+                System.out.println("GET " + url + " → " + connection.getResponseCode());
+                System.out.print(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+    }
+}
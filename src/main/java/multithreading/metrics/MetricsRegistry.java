@@ -0,0 +1,213 @@
+package multithreading.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Registry of counters, gauges, timers and histograms, with a Prometheus text exposition (scrape()).
+ *
+ * AtomicClassExample counts with one AtomicInteger; that's fine for one counter, but a process full of counters
+ * incremented on every call by every thread needs the same trick LongAdder uses:
+ *
+ * ✅ Recording path: no locks, no shared cache lines
+ * - Counter   → StripedCounter: one CAS on a per-thread stripe.
+ * - Histogram → per-thread stripe of a LogLinearHistogram (1% precision): one getAndIncrement() + a LongAdder add.
+ * - Timer     → a Histogram of nanos.
+ * - Gauge and function counter → a supplier, called only when scraped. Components that already count (LongAdders
+ *   in ResourcePool ...) expose those, and pay NOTHING per call.
+ *
+ * ✅ Read path: merge on demand
+ * scrape() merges the stripes of every metric into a snapshot and renders it. Scrapes are rare (every few
+ * seconds) and may be slow-ish; recording is frequent and must not be.
+ *
+ * Looking a metric up by name is a ConcurrentHashMap lookup: do it ONCE and keep the Counter/Timer in a field.
+ * Registering the same name and labels again returns the existing metric.
+ */
+public class MetricsRegistry {
+
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+    private static final Pattern NAME = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    enum Type {
+        COUNTER("counter"), GAUGE("gauge"), SUMMARY("summary");
+
+        final String text;
+
+        Type(String text) {
+            this.text = text;
+        }
+    }
+
+    private static final class Entry {
+        final String name;
+        final String labels;  // rendered: {k="v",...} or ""
+        final String help;
+        final Type type;
+        final Object metric;  // Counter, LongSupplier, DoubleSupplier, Histogram or Timer
+
+        Entry(String name, String labels, String help, Type type, Object metric) {
+            this.name = name;
+            this.labels = labels;
+            this.help = help;
+            this.type = type;
+            this.metric = metric;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>(); // key: name + labels
+
+    /**
+     * Process-wide registry the project's components report into by default.
+     */
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) register(name, help, Type.COUNTER, labels, Counter.class, Counter::new);
+    }
+
+    /**
+     * Counter whose value is read from an existing statistic (e.g. LongAdder::sum) when scraped.
+     */
+    public void counter(String name, String help, LongSupplier source, String... labels) {
+        register(name, help, Type.COUNTER, labels, LongSupplier.class, () -> source);
+    }
+
+    /**
+     * Value sampled when scraped: a queue length, a pool size ...
+     */
+    public void gauge(String name, String help, DoubleSupplier source, String... labels) {
+        register(name, help, Type.GAUGE, labels, DoubleSupplier.class, () -> source);
+    }
+
+    public Histogram histogram(String name, String help, String... labels) {
+        return (Histogram) register(name, help, Type.SUMMARY, labels, Histogram.class, Histogram::new);
+    }
+
+    /**
+     * Durations; exposed in seconds, so name it like "..._seconds".
+     */
+    public Timer timer(String name, String help, String... labels) {
+        return (Timer) register(name, help, Type.SUMMARY, labels, Timer.class, Timer::new);
+    }
+
+    public void remove(String name, String... labels) {
+        entries.remove(name + renderLabels(labels));
+    }
+
+    private Object register(String name, String help, Type type, String[] labels, Class<?> kind,
+                            Supplier<Object> factory) {
+        if (!NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid metric name: " + name);
+        }
+        String renderedLabels = renderLabels(labels);
+        Entry entry = entries.computeIfAbsent(name + renderedLabels,
+                key -> new Entry(name, renderedLabels, help, type, factory.get()));
+        if (entry.type != type || !kind.isInstance(entry.metric)) {
+            throw new IllegalArgumentException(name + renderedLabels + " is already registered as a " + entry.type.text);
+        }
+        if (kind == LongSupplier.class || kind == DoubleSupplier.class) {
+            // Functions can't be shared like a Counter - a second registration replaces the first
+            entries.put(name + renderedLabels, new Entry(name, renderedLabels, help, type, factory.get()));
+        }
+        return entry.metric;
+    }
+
+    private static String renderLabels(String[] labels) {
+        if (labels.length == 0) {
+            return "";
+        }
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name/value pairs");
+        }
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < labels.length; i += 2) {
+            if (!NAME.matcher(labels[i]).matches()) {
+                throw new IllegalArgumentException("Invalid label name: " + labels[i]);
+            }
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(labels[i]).append("=\"")
+                    .append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+                    .append('"');
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Prometheus text exposition format (version 0.0.4): one HELP/TYPE header per metric name, then one line per
+     * sample. Timers and histograms are summaries with quantiles, _sum and _count.
+     */
+    public String scrape() {
+        Map<String, List<Entry>> families = new TreeMap<>();
+        for (Entry entry : entries.values()) {
+            families.computeIfAbsent(entry.name, name -> new ArrayList<>()).add(entry);
+        }
+        StringBuilder out = new StringBuilder(4096);
+        for (List<Entry> family : families.values()) {
+            family.sort((a, b) -> a.labels.compareTo(b.labels));
+            Entry first = family.get(0);
+            out.append("# HELP ").append(first.name).append(' ')
+                    .append(first.help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+            out.append("# TYPE ").append(first.name).append(' ').append(first.type.text).append('\n');
+            for (Entry entry : family) {
+                writeSamples(out, entry);
+            }
+        }
+        return out.toString();
+    }
+
+    private static void writeSamples(StringBuilder out, Entry entry) {
+        Object metric = entry.metric;
+        if (metric instanceof Counter) {
+            sample(out, entry.name, entry.labels, ((Counter) metric).count());
+        } else if (metric instanceof LongSupplier) {
+            sample(out, entry.name, entry.labels, ((LongSupplier) metric).getAsLong());
+        } else if (metric instanceof DoubleSupplier) {
+            sample(out, entry.name, entry.labels, ((DoubleSupplier) metric).getAsDouble());
+        } else {
+            boolean seconds = metric instanceof Timer;
+            Histogram.Snapshot snapshot = seconds ? ((Timer) metric).snapshot() : ((Histogram) metric).snapshot();
+            double scale = seconds ? 1e-9 : 1.0;
+            for (double quantile : QUANTILES) {
+                String labels = withLabel(entry.labels, "quantile", Double.toString(quantile));
+                sample(out, entry.name, labels, snapshot.percentile(quantile * 100) * scale);
+            }
+            sample(out, entry.name + "_sum", entry.labels, snapshot.sum() * scale);
+            sample(out, entry.name + "_count", entry.labels, snapshot.count());
+        }
+    }
+
+    private static String withLabel(String labels, String name, String value) {
+        String label = name + "=\"" + value + "\"";
+        return labels.isEmpty() ? "{" + label + "}" : labels.substring(0, labels.length() - 1) + "," + label + "}";
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, long value) {
+        out.append(name).append(labels).append(' ').append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name).append(labels).append(' ');
+        if (Double.isNaN(value)) {
+            out.append("NaN");
+        } else if (Double.isInfinite(value)) {
+            out.append(value > 0 ? "+Inf" : "-Inf");
+        } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            out.append((long) value);
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+    }
+}
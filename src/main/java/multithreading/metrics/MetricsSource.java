@@ -0,0 +1,16 @@
+package multithreading.metrics;
+
+/**
+ * A component that can report into a MetricsRegistry (pools, loggers, queues ...).
+ *
+ * Implementations should register GAUGES and FUNCTION COUNTERS over the statistics they already keep, so the
+ * metrics are read at scrape time and cost nothing per call. Anything that must be measured per call (e.g. a
+ * wait time) should only be measured once bindTo() was called.
+ */
+public interface MetricsSource {
+
+    /**
+     * @param labels label name/value pairs that tell several instances apart, e.g. "pool", "db"
+     */
+    void bindTo(MetricsRegistry registry, String... labels);
+}
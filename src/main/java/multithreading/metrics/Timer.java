@@ -0,0 +1,63 @@
+package multithreading.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Histogram of durations in nanoseconds; exposed in seconds, as Prometheus expects.
+ *
+ *     long start = timer.start();
+ *     ... work ...
+ *     timer.stop(start);
+ *
+ * start()/stop() are just System.nanoTime() and a Histogram.record() - no object per measurement.
+ */
+public final class Timer {
+
+    private final Histogram nanos = new Histogram();
+
+    Timer() {
+    }
+
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the time since start and returns it (ns).
+     */
+    public long stop(long start) {
+        long elapsed = System.nanoTime() - start;
+        nanos.record(elapsed);
+        return elapsed;
+    }
+
+    public void record(long duration, TimeUnit unit) {
+        nanos.record(unit.toNanos(duration));
+    }
+
+    public void time(Runnable task) {
+        long start = start();
+        try {
+            task.run();
+        } finally {
+            stop(start);
+        }
+    }
+
+    public <T> T time(Supplier<T> task) {
+        long start = start();
+        try {
+            return task.get();
+        } finally {
+            stop(start);
+        }
+    }
+
+    /**
+     * Durations in nanoseconds.
+     */
+    public Histogram.Snapshot snapshot() {
+        return nanos.snapshot();
+    }
+}
@@ -2,7 +2,7 @@ package multithreading.ping_pong_problem;
 
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import multithreading.instrumented_locks.InstrumentedLock;
 
 public class PingPongWithReentrantLockAndCondition {
 
@@ -22,7 +22,7 @@ public class PingPongWithReentrantLockAndCondition {
      * Unlike wait()/notify(), you can create multiple conditions per lock — each acting like its own "channel".
      */
 
-    private final Lock lock = new ReentrantLock();
+    private final Lock lock = new InstrumentedLock("PingPong.lock"); // a ReentrantLock, measured
     private final Condition pingTurn = lock.newCondition();
     private final Condition pongTurn = lock.newCondition();
 
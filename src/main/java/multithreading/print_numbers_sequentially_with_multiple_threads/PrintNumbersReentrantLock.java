@@ -1,7 +1,9 @@
 package multithreading.print_numbers_sequentially_with_multiple_threads;
 
 import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.ReentrantLock;
+import multithreading.instrumented_locks.InstrumentedLock;
+
+import java.util.concurrent.locks.Lock;
 
 public class PrintNumbersReentrantLock {
 
@@ -10,7 +12,7 @@ public class PrintNumbersReentrantLock {
     private int number = 1;
     private int turn = 0; // 0 → T1, 1 → T2, 2 → T3
 
-    private final ReentrantLock lock = new ReentrantLock();
+    private final Lock lock = new InstrumentedLock("PrintNumbersReentrantLock.lock"); // a ReentrantLock, measured
     private final Condition[] conditions = new Condition[THREAD_COUNT];
 
     public static void main(String[] args) {
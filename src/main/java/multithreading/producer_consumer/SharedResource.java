@@ -1,11 +1,25 @@
 package multithreading.producer_consumer;
 
+import multithreading.metrics.MetricsRegistry;
+import multithreading.metrics.MetricsSource;
+
 import java.util.LinkedList;
+import java.util.concurrent.atomic.LongAdder;
 
-public class SharedResource {
+public class SharedResource implements MetricsSource {
     private final LinkedList<Integer> list = new LinkedList<>();
     private final int capacity = 2;
 
+    /**
+     * Statistics for bindTo(). Updated under the lock, but readable WITHOUT it: a scrape must not wait for the
+     * producer/consumer, which hold the lock while they sleep.
+     */
+    private volatile int size;
+    private final LongAdder produced = new LongAdder();
+    private final LongAdder consumed = new LongAdder();
+    private final LongAdder fullWaits = new LongAdder();
+    private final LongAdder emptyWaits = new LongAdder();
+
     public void produce() throws InterruptedException {
         int value = 0;
         while (true) {
@@ -34,6 +48,7 @@ public class SharedResource {
                  */
                 if (list.size() == capacity) {
                     System.out.println("List is full, producer is waiting...");
+                    fullWaits.increment();
                     notify();
                     wait();
                 }
@@ -50,6 +65,8 @@ public class SharedResource {
                  * Then sleeps for 1 second to simulate processing time.
                  */
                 list.add(value);
+                size = list.size();
+                produced.increment();
                 System.out.println("Producer produced - " + value++);
                 notify();
                 Thread.sleep(1000);
@@ -67,6 +84,7 @@ public class SharedResource {
             synchronized (this) {
                 if (list.isEmpty()) {
                     System.out.println("List is empty, consumer is waiting...");
+                    emptyWaits.increment();
 
                     /**
                      * 1. notify();
@@ -86,10 +104,22 @@ public class SharedResource {
                 }
 
                 int value = list.removeFirst();
+                size = list.size();
+                consumed.increment();
                 System.out.println("Consumer consumed - " + value);
                 notify();
                 Thread.sleep(1000);
             }
         }
     }
+
+    @Override
+    public void bindTo(MetricsRegistry registry, String... labels) {
+        registry.gauge("buffer_items", "Items in the buffer", () -> size, labels);
+        registry.gauge("buffer_capacity", "Items the buffer can hold", () -> capacity, labels);
+        registry.counter("buffer_produced_total", "Items added by the producer", produced::sum, labels);
+        registry.counter("buffer_consumed_total", "Items taken by the consumer", consumed::sum, labels);
+        registry.counter("buffer_full_waits_total", "Times the producer waited for space", fullWaits::sum, labels);
+        registry.counter("buffer_empty_waits_total", "Times the consumer waited for an item", emptyWaits::sum, labels);
+    }
 }
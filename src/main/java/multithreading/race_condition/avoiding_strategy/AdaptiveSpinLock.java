@@ -0,0 +1,247 @@
+package multithreading.race_condition.avoiding_strategy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.AbstractQueuedSynchronizer;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Lock for TINY critical sections (counter++): spin briefly before parking, with a budget that adapts.
+ *
+ * Parking and unparking a thread costs microseconds (syscalls, context switches); counter++ takes nanoseconds.
+ * If the lock is busy, the holder will very likely release it before a parked thread would even have been
+ * woken up - so it pays to spin (Thread.onSpinWait()) a little and grab the lock as soon as it is free.
+ * But spinning is pure waste when the holder is NOT running (more threads than cores, holder preempted) or the
+ * critical section is long. So the spin budget adapts:
+ *
+ * 1. Hold time: every 16th acquisition is timed; spinning longer than ~2x the average hold time makes no sense,
+ *    so that caps the budget (converted to onSpinWait() iterations, calibrated at start-up).
+ * 2. Outcome: a spin that got the lock doubles the budget (up to the cap), a spin that ended up parking anyway
+ *    halves it. When spinning keeps failing the budget drops to 0 - straight to the queue, no CPU wasted - and
+ *    is re-probed every 1024 acquisitions.
+ *
+ * All adaptive state is updated by the thread HOLDING the lock, so plain fields are enough; spinBudget is
+ * volatile because spinning threads read it without the lock.
+ *
+ * The queue and parking are AbstractQueuedSynchronizer's (as in ReentrantLock). Not reentrant, not fair.
+ * Like ReentrantLock it records its owner: unlock() and Condition methods from any other thread throw
+ * IllegalMonitorStateException.
+ */
+public class AdaptiveSpinLock implements Lock {
+
+    private static final int MIN_SPINS = 16;
+    private static final int MAX_SPINS = 1 << 14;
+    private static final int SAMPLE_MASK = 15;      // time every 16th hold
+    private static final int REPROBE_MASK = 1023;   // re-enable spinning every 1024 acquisitions
+    private static final double NANOS_PER_SPIN = calibrateSpin();
+
+    private static final class Sync extends AbstractQueuedSynchronizer {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean tryAcquire(int ignored) {
+            if (getState() == 0 && compareAndSetState(0, 1)) {
+                setExclusiveOwnerThread(Thread.currentThread());
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        protected boolean tryRelease(int ignored) {
+            if (getExclusiveOwnerThread() != Thread.currentThread()) {
+                throw new IllegalMonitorStateException("unlock() by a thread that doesn't hold the AdaptiveSpinLock");
+            }
+            setExclusiveOwnerThread(null);
+            setState(0); // volatile write after the owner: the next acquirer sees owner == null
+            return true;
+        }
+
+        @Override
+        protected boolean isHeldExclusively() {
+            return getExclusiveOwnerThread() == Thread.currentThread(); // Condition.await/signal check this
+        }
+
+        boolean isFree() {
+            return getState() == 0;
+        }
+
+        Condition newCondition() {
+            return new ConditionObject();
+        }
+    }
+
+    private final Sync sync = new Sync();
+    private volatile int spinBudget = MIN_SPINS;
+
+    // Guarded by the lock itself
+    private long holdEstimateNanos = 100;
+    private long acquisitions;
+    private long holdStart;
+
+    private final LongAdder spinSuccesses = new LongAdder();
+    private final LongAdder parks = new LongAdder();
+
+    @Override
+    public void lock() {
+        if (sync.tryAcquire(1)) {
+            acquired();
+            return;
+        }
+        boolean gotItSpinning = spin();
+        if (!gotItSpinning) {
+            parks.increment();
+            sync.acquire(1);
+        }
+        adapt(gotItSpinning);
+        acquired();
+    }
+
+    private boolean spin() {
+        return spin(spinBudget);
+    }
+
+    private boolean spin(int budget) {
+        for (int i = 0; i < budget; i++) {
+            Thread.onSpinWait();
+            if (sync.isFree() && sync.tryAcquire(1)) { // test before test-and-set: no CAS storm on a busy lock
+                spinSuccesses.increment();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void adapt(boolean spinSucceeded) {
+        int budget = spinBudget;
+        spinBudget = spinSucceeded ? Math.min(spinCap(), budget * 2 + MIN_SPINS) : budget / 2;
+    }
+
+    private void acquired() {
+        long n = ++acquisitions;
+        if ((n & SAMPLE_MASK) == 0) {
+            holdStart = System.nanoTime();
+        }
+        if ((n & REPROBE_MASK) == 0 && spinBudget == 0) {
+            spinBudget = MIN_SPINS;
+        }
+    }
+
+    // Spinning for longer than about two average holds is waiting for something else than this critical section
+    private int spinCap() {
+        return (int) Math.max(MIN_SPINS, Math.min(MAX_SPINS, 2 * holdEstimateNanos / NANOS_PER_SPIN));
+    }
+
+    @Override
+    public void unlock() {
+        if (!sync.isHeldExclusively()) {
+            // Before touching the hold-time fields below: they belong to the owner
+            throw new IllegalMonitorStateException("unlock() by a thread that doesn't hold the AdaptiveSpinLock");
+        }
+        long start = holdStart;
+        if (start != 0) {
+            holdStart = 0;
+            holdEstimateNanos = (holdEstimateNanos * 7 + (System.nanoTime() - start)) / 8; // moving average
+        }
+        sync.release(1);
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (sync.tryAcquire(1)) {
+            acquired();
+            return;
+        }
+        boolean gotItSpinning = spin();
+        if (!gotItSpinning) {
+            parks.increment();
+            sync.acquireInterruptibly(1);
+        }
+        adapt(gotItSpinning);
+        acquired();
+    }
+
+    @Override
+    public boolean tryLock() {
+        if (sync.tryAcquire(1)) {
+            acquired();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Spins only as long as the timeout allows - tryLock(0, ns) is a plain tryLock() (InstrumentedLock relies on
+     * that for its "is it free?" check). A timed-out attempt doesn't adapt the budget: that state belongs to
+     * the lock holder, and a spin cut short by the deadline says nothing about spinning anyway.
+     */
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (sync.tryAcquire(1)) {
+            acquired();
+            return true;
+        }
+        long nanos = unit.toNanos(time);
+        if (nanos <= 0) {
+            return false;
+        }
+        long deadline = System.nanoTime() + nanos;
+        int budget = spinBudget;
+        int allowed = (int) Math.min(budget, nanos / NANOS_PER_SPIN);
+        boolean gotItSpinning = spin(allowed);
+        if (!gotItSpinning) {
+            parks.increment();
+            if (!sync.tryAcquireNanos(1, deadline - System.nanoTime())) {
+                return false;
+            }
+        }
+        if (gotItSpinning || allowed == budget) {
+            adapt(gotItSpinning);
+        }
+        acquired();
+        return true;
+    }
+
+    @Override
+    public Condition newCondition() {
+        return sync.newCondition();
+    }
+
+    public int spinBudget() {
+        return spinBudget;
+    }
+
+    public long holdEstimateNanos() {
+        return holdEstimateNanos;
+    }
+
+    public long spinSuccesses() {
+        return spinSuccesses.sum();
+    }
+
+    public long parks() {
+        return parks.sum();
+    }
+
+    private static double calibrateSpin() {
+        int iterations = 100_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            Thread.onSpinWait();
+        }
+        return Math.max(0.5, (double) (System.nanoTime() - start) / iterations);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AdaptiveSpinLock[spinBudget=%d (%.0fns/spin) holdEstimate=%dns spinSuccesses=%,d parks=%,d]",
+                spinBudget, NANOS_PER_SPIN, holdEstimateNanos, spinSuccesses(), parks());
+    }
+}
@@ -0,0 +1,115 @@
+package multithreading.race_condition.avoiding_strategy;
+
+import multithreading.benchmark.BenchmarkHarness;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * counter++ (the critical section of RaceConditionWithLock) under ReentrantLock, synchronized, a pure spinlock
+ * and AdaptiveSpinLock - from 1 thread up to 4x the number of cores.
+ *
+ * Expected picture:
+ * - threads <= cores: spinning wins, the holder is running and releases within nanoseconds;
+ * - threads > cores (oversubscribed): the pure spinlock collapses - waiters burn their whole time slice while
+ *   the preempted holder can't run - while AdaptiveSpinLock drops its budget to 0 and behaves like ReentrantLock.
+ *
+ * Usage: AdaptiveSpinLockBenchmark [millisPerRun]
+ */
+public class AdaptiveSpinLockBenchmark {
+
+    private static long counter;
+
+    interface Guarded {
+        void increment();
+    }
+
+    /**
+     * Test-and-test-and-set spinlock: never parks.
+     */
+    static final class SpinLock {
+        private final AtomicBoolean locked = new AtomicBoolean();
+
+        void lock() {
+            while (locked.get() || !locked.compareAndSet(false, true)) {
+                Thread.onSpinWait();
+            }
+        }
+
+        void unlock() {
+            locked.set(false);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        int cores = Runtime.getRuntime().availableProcessors();
+        int maxThreads = Math.max(8, cores * 4);
+
+        System.out.println("Cores: " + cores);
+        System.out.printf("%-18s %8s %14s%n", "lock", "threads", "ops/sec");
+        for (int threads : BenchmarkHarness.powersOfTwo(maxThreads)) {
+            for (String name : new String[]{"ReentrantLock", "synchronized", "SpinLock", "AdaptiveSpinLock"}) {
+                AdaptiveSpinLock adaptive = new AdaptiveSpinLock();
+                Guarded guarded = create(name, adaptive);
+                run(guarded, threads, millis / 5); // warm-up
+                long opsPerSec = run(guarded, threads, millis);
+                System.out.printf("%-18s %8d %,14d%s%n", name, threads, opsPerSec,
+                        name.equals("AdaptiveSpinLock") ? "   " + adaptive : "");
+            }
+        }
+    }
+
+    private static Guarded create(String name, AdaptiveSpinLock adaptive) {
+        switch (name) {
+            case "ReentrantLock": {
+                ReentrantLock lock = new ReentrantLock();
+                return () -> {
+                    lock.lock();
+                    try {
+                        counter++;
+                    } finally {
+                        lock.unlock();
+                    }
+                };
+            }
+            case "synchronized": {
+                Object monitor = new Object();
+                return () -> {
+                    synchronized (monitor) {
+                        counter++;
+                    }
+                };
+            }
+            case "SpinLock": {
+                SpinLock lock = new SpinLock();
+                return () -> {
+                    lock.lock();
+                    try {
+                        counter++;
+                    } finally {
+                        lock.unlock();
+                    }
+                };
+            }
+            default:
+                return () -> {
+                    adaptive.lock();
+                    try {
+                        counter++;
+                    } finally {
+                        adaptive.unlock();
+                    }
+                };
+        }
+    }
+
+    private static long run(Guarded guarded, int threads, long millis) throws InterruptedException {
+        return BenchmarkHarness.run(threads, millis, index -> () -> {
+            for (int i = 0; i < BenchmarkHarness.BATCH_SIZE; i++) {
+                guarded.increment();
+            }
+            return BenchmarkHarness.BATCH_SIZE;
+        }).perSecond();
+    }
+}
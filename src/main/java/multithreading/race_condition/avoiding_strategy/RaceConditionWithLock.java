@@ -1,11 +1,15 @@
 package multithreading.race_condition.avoiding_strategy;
 
-import java.util.concurrent.locks.ReentrantLock;
+import multithreading.instrumented_locks.InstrumentedLock;
+import multithreading.instrumented_locks.LockInstrumentation;
+
+import java.util.concurrent.locks.Lock;
 
 public class RaceConditionWithLock {
 
     private int counter = 0;
-    private final ReentrantLock lock = new ReentrantLock();
+    // counter++ is a tiny critical section: spin briefly instead of parking right away (see AdaptiveSpinLock)
+    private final Lock lock = new InstrumentedLock("RaceConditionWithLock.counter", new AdaptiveSpinLock());
 
     public void increment() {
         lock.lock();
@@ -21,6 +25,7 @@ public class RaceConditionWithLock {
     }
 
     public static void main(String[] args) throws InterruptedException {
+        LockInstrumentation.enable();
         RaceConditionWithLock example = new RaceConditionWithLock();
 
         Thread t1 = new Thread(() -> {
@@ -42,6 +47,7 @@ public class RaceConditionWithLock {
         t2.join();
 
         System.out.println("Final Counter: " + example.getCounter());
+        System.out.print(LockInstrumentation.topContended(5));
     }
 
 }
@@ -0,0 +1,89 @@
+package multithreading.race_condition.avoiding_strategy;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counter that spreads increments over several cells, so threads don't all CAS the same memory word.
+ *
+ * With one AtomicInteger (AtomicClassExample) every increment of every thread hits ONE cache line: the line
+ * ping-pongs between the cores' caches and CAS retries pile up - the more cores, the slower each increment.
+ *
+ * ✅ Striping:
+ * 1. The counter is N cells (N = power of two >= 2 x cores). A thread picks its cell with a per-thread PROBE
+ *    (a hash of its id), so different threads usually touch different cells.
+ * 2. An increment is one CAS on that cell. If the CAS fails somebody else uses the same cell: the thread moves
+ *    its probe to another cell for the future (the probe is remembered per thread, shared by all counters)
+ *    and adds with getAndAdd(), which always succeeds.
+ * 3. sum() adds up all cells. Reads are O(N) and not an atomic snapshot - concurrent increments may or may
+ *    not be included - which is fine for statistics, not for a sequence number.
+ *
+ * ✅ Padding: the cells live in ONE AtomicLongArray, 16 longs (128 bytes) apart - two cache lines, since CPUs
+ * often prefetch lines in adjacent pairs. Without it, neighbouring cells would share a line and the threads
+ * would fight over it anyway ("false sharing"). Array elements are laid out in order, so unlike padding fields
+ * this can't be undone by the JVM's field layout.
+ *
+ * This is the idea behind java.util.concurrent.atomic.LongAdder (which also grows its cells on demand).
+ */
+public class StripedCounter {
+
+    private static final int PAD = 16; // longs between two cells: 128 bytes
+
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(() -> new int[]{initialProbe()});
+
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    public StripedCounter() {
+        this(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public StripedCounter(int stripes) {
+        int size = Integer.highestOneBit(Math.max(2, stripes) - 1) << 1; // next power of two
+        this.cells = new AtomicLongArray(size * PAD);
+        this.mask = size - 1;
+    }
+
+    public void increment() {
+        add(1);
+    }
+
+    public void add(long delta) {
+        int[] probe = PROBE.get();
+        int index = (probe[0] & mask) * PAD;
+        long current = cells.get(index);
+        if (!cells.compareAndSet(index, current, current + delta)) {
+            // Contended cell: move this thread elsewhere next time, and don't retry the CAS now
+            probe[0] = rehash(probe[0]);
+            cells.getAndAdd(index, delta);
+        }
+    }
+
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < cells.length(); i += PAD) {
+            sum += cells.get(i);
+        }
+        return sum;
+    }
+
+    public int stripes() {
+        return mask + 1;
+    }
+
+    private static int initialProbe() {
+        int h = (int) (Thread.currentThread().getId() * 0x9E3779B97F4A7C15L >>> 32); // Fibonacci hashing
+        return h == 0 ? 1 : h;
+    }
+
+    private static int rehash(int h) {
+        h ^= h << 13; // xorshift
+        h ^= h >>> 17;
+        h ^= h << 5;
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(sum());
+    }
+}
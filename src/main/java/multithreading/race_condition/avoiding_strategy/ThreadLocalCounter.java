@@ -0,0 +1,76 @@
+package multithreading.race_condition.avoiding_strategy;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counter where every thread increments its OWN cell; reads merge all cells.
+ *
+ * StripedCounter still shares cells between threads (and needs a CAS). Here a cell has exactly one writer, so
+ * an increment needs neither a CAS nor a lock nor a fence:
+ *
+ *     cell.lazySet(cell.get() + 1)    // plain read + release store, no other thread writes this cell
+ *
+ * lazySet makes the new value visible to readers "soon" without the cost of a volatile write; sum() may be a
+ * few increments behind, never ahead and never torn (a long written through AtomicLong is always atomic).
+ *
+ * ✅ Trade-offs:
+ * - increment: the cheapest possible - a ThreadLocal lookup and two plain memory accesses, no contention at all.
+ * - sum(): O(number of threads that ever incremented) plus a lock on the cell list - use it for rare reads.
+ * - cells of threads that died are folded into a base value on the next sum(), so a counter used by many
+ *   short-lived threads doesn't grow forever.
+ */
+public class ThreadLocalCounter {
+
+    private static final class Cell {
+        final WeakReference<Thread> owner = new WeakReference<>(Thread.currentThread());
+        final AtomicLong value = new AtomicLong();
+    }
+
+    private final ThreadLocal<Cell> local = ThreadLocal.withInitial(this::register);
+    private final List<Cell> cells = new ArrayList<>(); // guarded by itself
+    private long base;                                  // guarded by cells: sum of the cells of dead threads
+
+    public void increment() {
+        AtomicLong value = local.get().value;
+        value.lazySet(value.get() + 1); // single writer → no CAS
+    }
+
+    public void add(long delta) {
+        AtomicLong value = local.get().value;
+        value.lazySet(value.get() + delta);
+    }
+
+    public long sum() {
+        synchronized (cells) {
+            long sum = base;
+            Iterator<Cell> it = cells.iterator();
+            while (it.hasNext()) {
+                Cell cell = it.next();
+                Thread owner = cell.owner.get();
+                if (owner == null || !owner.isAlive()) {
+                    base += cell.value.get(); // thread is gone: its last write happened-before isAlive() == false
+                    it.remove();
+                }
+                sum += cell.value.get();
+            }
+            return sum;
+        }
+    }
+
+    private Cell register() {
+        Cell cell = new Cell();
+        synchronized (cells) {
+            cells.add(cell);
+        }
+        return cell;
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(sum());
+    }
+}
@@ -0,0 +1,156 @@
+package multithreading.reader_write_problem;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Shared resource whose writes are FLAT COMBINED.
+ *
+ * With SharedData every writer competes for the exclusive write lock. Under a burst of writes most of the time
+ * goes into handing the lock (and its cache line, and the data's cache line) from core to core.
+ *
+ * ✅ Flat combining turns N lock handoffs into one:
+ * 1. A writer doesn't apply its update itself, it PUBLISHES it in its own slot (one node per thread).
+ *
+ * 2. It then tries to take the write lock. The thread that gets it becomes the COMBINER: it walks every
+ *    slot, applies all pending updates in one lock hold and hands each writer its result.
+ *
+ * 3. Writers that didn't get the lock just spin on their OWN slot until the combiner has served them
+ *    (or until the lock - held for writing or reading - is free again and they can combine themselves).
+ *
+ * The data stays in the combiner's cache for the whole batch, and the more writers pile up the bigger the
+ * batch - write throughput stays flat instead of degrading as threads are added.
+ *
+ * Reads don't combine: they use StampedLock optimistic reads like StampedSharedData.
+ *
+ * ⚠️ Slots are never unlinked, so a thread that used this object keeps its node for the object's lifetime.
+ * Fine for fixed pools of writer threads, not for a new thread per write.
+ */
+class FlatCombiningSharedData implements ReadWriteResource {
+    private int data = 0;  // Simulated shared resource
+
+    private static final IntBinaryOperator SET = (current, newValue) -> newValue;
+    private static final int SPINS_BEFORE_YIELD = 128;
+
+    private final StampedLock lock = new StampedLock();
+
+    // Publication list: one node per writer thread, pushed once at the head
+    private final AtomicReference<Node> publications = new AtomicReference<>();
+    private final ThreadLocal<Node> myNode = ThreadLocal.withInitial(this::register);
+
+    private static final class Node {
+        IntBinaryOperator operation;    // written before 'pending', read by the combiner after it
+        int operand;
+        int result;                     // written by the combiner before it clears 'pending'
+        volatile boolean pending;
+        Node next;                      // final once published
+
+        // Padding so that neighbouring nodes' 'pending' flags don't share a cache line
+        long p1, p2, p3, p4, p5, p6, p7;
+    }
+
+    private Node register() {
+        Node node = new Node();
+        Node head;
+        do {
+            head = publications.get();
+            node.next = head;
+        } while (!publications.compareAndSet(head, node));
+        return node;
+    }
+
+    /**
+     * Applies {@code operation.applyAsInt(data, operand)} as one atomic update and returns the new value.
+     * It may be executed by another thread (the current combiner).
+     */
+    public int update(IntBinaryOperator operation, int operand) {
+        Node node = myNode.get();
+        node.operation = operation;
+        node.operand = operand;
+        node.pending = true; // publish (volatile write after the plain ones)
+
+        int spins = 0;
+        while (true) {
+            long stamp = lock.tryWriteLock();
+            if (stamp != 0) {
+                try {
+                    combine();
+                } finally {
+                    lock.unlockWrite(stamp);
+                }
+                return node.result; // our own request was in the batch we just applied
+            }
+            // Somebody else is combining, or readers are inside - wait on our own slot, and only go back to
+            // tryWriteLock() once the lock is free in BOTH modes (retrying under readers is a CAS storm)
+            while (node.pending && (lock.isWriteLocked() || lock.isReadLocked())) {
+                if (++spins % SPINS_BEFORE_YIELD == 0) {
+                    Thread.yield();
+                } else {
+                    Thread.onSpinWait();
+                }
+            }
+            if (!node.pending) {
+                return node.result;
+            }
+        }
+    }
+
+    // Called with the write lock held
+    private void combine() {
+        int value = data;
+        for (Node node = publications.get(); node != null; node = node.next) {
+            if (node.pending) {
+                value = node.operation.applyAsInt(value, node.operand);
+                node.result = value;
+                node.pending = false; // hands the result to the waiting writer
+            }
+        }
+        data = value;
+    }
+
+    // Reader thread reads the data
+    @Override
+    public void readData(String readerName) {
+        System.out.println(readerName + " is reading: " + read());
+        try {
+            Thread.sleep(1000); // Simulate time taken to read
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.out.println(readerName + " finished reading");
+    }
+
+    // Writer thread writes/updates the data
+    @Override
+    public void writeData(String writerName, int newValue) {
+        System.out.println(writerName + " is writing: " + newValue);
+        try {
+            Thread.sleep(1500); // Simulate time taken to prepare the write
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        write(newValue);
+        System.out.println(writerName + " finished writing");
+    }
+
+    @Override
+    public int read() {
+        long stamp = lock.tryOptimisticRead();
+        int value = data;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                value = data;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public void write(int newValue) {
+        update(SET, newValue);
+    }
+}
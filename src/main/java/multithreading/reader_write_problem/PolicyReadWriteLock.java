@@ -0,0 +1,163 @@
+package multithreading.reader_write_problem;
+
+import multithreading.deadlock.LockTracker;
+import multithreading.metrics.LogLinearHistogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reader/writer lock with a selectable scheduling policy.
+ *
+ * A default (non-fair) ReentrantReadWriteLock lets new readers keep joining while readers are inside, so under a
+ * steady stream of reads a writer can wait indefinitely. Which side should win is a policy decision:
+ *
+ * READER_PREFERENCE → readers enter whenever no writer is INSIDE. Best read throughput, writers can starve.
+ *
+ * WRITER_PREFERENCE → readers also stay out while a writer is WAITING. Bounded writer wait, but a steady
+ *                     stream of writers starves the readers.
+ *
+ * PHASE_FAIR        → reader and writer phases alternate. A reader that arrives while a writer is inside or
+ *                     waiting is parked for the next READ PHASE; when a writer leaves, every parked reader is
+ *                     admitted at once, before the next writer. So a reader waits for at most one writer and
+ *                     a writer waits for at most one read phase (plus the writers ahead of it).
+ *
+ * Every acquisition records how long it waited into readerWaitTimes()/writerWaitTimes() (LogLinearHistograms,
+ * within 1%), so the policies can be compared on p99 latency and not only on throughput.
+ *
+ * Implemented as a classic monitor (one ReentrantLock + two Conditions); not reentrant. The JVM can't see which
+ * readers a waiting writer depends on, so holders and waiters are reported to LockTracker for DeadlockDetector.
+ */
+public class PolicyReadWriteLock {
+
+    public enum Policy {
+        READER_PREFERENCE, WRITER_PREFERENCE, PHASE_FAIR
+    }
+
+    private final Policy policy;
+    private final ReentrantLock monitor = new ReentrantLock();
+    private final Condition readersCanEnter = monitor.newCondition();
+    private final Condition writersCanEnter = monitor.newCondition();
+
+    // Guarded by monitor
+    private int activeReaders;
+    private boolean writerActive;
+    private int waitingWriters;
+
+    // PHASE_FAIR only: parked readers wait for admittedPhase to reach the phase they were parked for
+    private int parkedReaders;
+    private long nextReadPhase = 1;
+    private long admittedPhase;
+
+    private final LogLinearHistogram readerWaitTimes = LogLinearHistogram.forLatencies(1, TimeUnit.HOURS, 2);
+    private final LogLinearHistogram writerWaitTimes = LogLinearHistogram.forLatencies(1, TimeUnit.HOURS, 2);
+
+    public PolicyReadWriteLock(Policy policy) {
+        this.policy = policy;
+    }
+
+    public Policy policy() {
+        return policy;
+    }
+
+    public void lockRead() {
+        long start = System.nanoTime();
+        monitor.lock();
+        try {
+            switch (policy) {
+                case READER_PREFERENCE:
+                    while (writerActive) {
+                        LockTracker.waiting(this);
+                        readersCanEnter.awaitUninterruptibly();
+                    }
+                    activeReaders++;
+                    break;
+                case WRITER_PREFERENCE:
+                    while (writerActive || waitingWriters > 0) {
+                        LockTracker.waiting(this);
+                        readersCanEnter.awaitUninterruptibly();
+                    }
+                    activeReaders++;
+                    break;
+                case PHASE_FAIR:
+                    if (!writerActive && waitingWriters == 0) {
+                        activeReaders++;
+                    } else {
+                        // Park for the next read phase; the writer leaving counts us into activeReaders
+                        long myPhase = nextReadPhase;
+                        parkedReaders++;
+                        while (admittedPhase < myPhase) {
+                            LockTracker.waiting(this);
+                            readersCanEnter.awaitUninterruptibly();
+                        }
+                    }
+                    break;
+            }
+        } finally {
+            monitor.unlock();
+        }
+        readerWaitTimes.record(System.nanoTime() - start);
+        LockTracker.acquired(this);
+    }
+
+    public void unlockRead() {
+        LockTracker.released(this);
+        monitor.lock();
+        try {
+            if (--activeReaders == 0) {
+                writersCanEnter.signal();
+            }
+        } finally {
+            monitor.unlock();
+        }
+    }
+
+    public void lockWrite() {
+        long start = System.nanoTime();
+        monitor.lock();
+        try {
+            waitingWriters++;
+            while (writerActive || activeReaders > 0) {
+                LockTracker.waiting(this);
+                writersCanEnter.awaitUninterruptibly();
+            }
+            waitingWriters--;
+            writerActive = true;
+        } finally {
+            monitor.unlock();
+        }
+        writerWaitTimes.record(System.nanoTime() - start);
+        LockTracker.acquired(this);
+    }
+
+    public void unlockWrite() {
+        LockTracker.released(this);
+        monitor.lock();
+        try {
+            writerActive = false;
+            if (policy == Policy.PHASE_FAIR && parkedReaders > 0) {
+                // Hand the lock to the whole read phase at once, so no writer can slip in before it
+                activeReaders += parkedReaders;
+                parkedReaders = 0;
+                admittedPhase = nextReadPhase++;
+                readersCanEnter.signalAll();
+            } else if (policy == Policy.WRITER_PREFERENCE && waitingWriters > 0) {
+                writersCanEnter.signal();
+            } else {
+                readersCanEnter.signalAll();
+                writersCanEnter.signal();
+            }
+        } finally {
+            monitor.unlock();
+        }
+    }
+
+    public LogLinearHistogram readerWaitTimes() {
+        return readerWaitTimes;
+    }
+
+    public LogLinearHistogram writerWaitTimes() {
+        return writerWaitTimes;
+    }
+}
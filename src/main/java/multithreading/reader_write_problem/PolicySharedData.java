@@ -0,0 +1,67 @@
+package multithreading.reader_write_problem;
+
+// Shared resource guarded by a PolicyReadWriteLock (reader-preference, writer-preference or phase-fair)
+class PolicySharedData implements ReadWriteResource {
+    private int data = 0;  // Simulated shared resource
+
+    private final PolicyReadWriteLock lock;
+
+    PolicySharedData(PolicyReadWriteLock.Policy policy) {
+        this.lock = new PolicyReadWriteLock(policy);
+    }
+
+    PolicyReadWriteLock lock() {
+        return lock;
+    }
+
+    // Reader thread reads the data
+    @Override
+    public void readData(String readerName) {
+        lock.lockRead();  // Acquire read lock
+        try {
+            System.out.println(readerName + " is reading: " + data);
+            Thread.sleep(1000); // Simulate time taken to read
+            System.out.println(readerName + " finished reading");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlockRead();  // Release read lock
+        }
+    }
+
+    // Writer thread writes/updates the data
+    @Override
+    public void writeData(String writerName, int newValue) {
+        lock.lockWrite();  // Acquire write lock
+        try {
+            System.out.println(writerName + " is writing: " + newValue);
+            Thread.sleep(1500); // Simulate time taken to write
+            this.data = newValue;
+            System.out.println(writerName + " finished writing");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlockWrite();  // Release write lock
+        }
+    }
+
+    @Override
+    public int read() {
+        lock.lockRead();
+        try {
+            return data;
+        } finally {
+            lock.unlockRead();
+        }
+    }
+
+    @Override
+    public void write(int newValue) {
+        lock.lockWrite();
+        try {
+            this.data = newValue;
+        } finally {
+            lock.unlockWrite();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package multithreading.reader_write_problem;
+
+import multithreading.benchmark.BenchmarkHarness;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Throughput benchmark for the ReadWriteResource implementations.
+ *
+ * For every read/write ratio (down to write-only) and thread count, each implementation is hammered for a
+ * fixed time window with read()/write() calls (no printing, no sleeping) and the total number of operations
+ * per second is reported.
+ *
+ * A second table measures the WRITE COST: one writer thread times its write() calls while all other threads
+ * keep reading. Biased/optimistic schemes make reads cheaper by making writes pay more - this shows how much.
+ *
+ * Usage: ReadWriteLockBenchmark [millisPerRun] [implementationNameFilter]
+ *
+ * ⚠️ BenchmarkHarness, not JMH: warm-up is a single discarded run per cell, so treat the numbers
+ * as relative between implementations, not as absolute figures. Once several implementations went through the
+ * same resource.read() call site the JIT can no longer inline it, which penalizes whatever runs later - for
+ * fair numbers run one implementation per JVM with the name filter (e.g. "Biased").
+ */
+public class ReadWriteLockBenchmark {
+
+    private static final int[] READ_PERCENTAGES = {99, 90, 50, 0};
+
+    // Tells writeCost()'s readers to finish (runs never overlap, so one flag is enough)
+    private static volatile boolean stopReaders;
+
+    public static void main(String[] args) throws InterruptedException {
+        long millisPerRun = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        String filter = args.length > 1 ? args[1] : "";
+
+        Map<String, Supplier<ReadWriteResource>> implementations = new LinkedHashMap<>();
+        implementations.put("ReentrantReadWriteLock", SharedData::new);
+        implementations.put("StampedLock (optimistic)", StampedSharedData::new);
+        implementations.put("ReaderBiasedLock", ReaderBiasedSharedData::new);
+        implementations.put("Flat combining", FlatCombiningSharedData::new);
+        implementations.keySet().removeIf(name -> !name.contains(filter));
+
+        for (int readPercent : READ_PERCENTAGES) {
+            System.out.println();
+            System.out.printf("=== %d%% reads / %d%% writes ===%n", readPercent, 100 - readPercent);
+            System.out.printf("%-28s %8s %16s%n", "implementation", "threads", "ops/sec");
+            for (int threads : threadCounts()) {
+                for (Map.Entry<String, Supplier<ReadWriteResource>> impl : implementations.entrySet()) {
+                    run(impl.getValue().get(), threads, readPercent, millisPerRun / 5); // warm-up
+                    long opsPerSec = run(impl.getValue().get(), threads, readPercent, millisPerRun);
+                    System.out.printf("%-28s %8d %,16d%n", impl.getKey(), threads, opsPerSec);
+                }
+            }
+        }
+
+        System.out.println();
+        System.out.println("=== write cost: 1 writer + (threads - 1) readers ===");
+        System.out.printf("%-28s %8s %16s%n", "implementation", "threads", "ns/write");
+        for (int threads : threadCounts()) {
+            if (threads < 2) {
+                continue;
+            }
+            for (Map.Entry<String, Supplier<ReadWriteResource>> impl : implementations.entrySet()) {
+                writeCost(impl.getValue().get(), threads - 1, millisPerRun / 5); // warm-up
+                long nanosPerWrite = writeCost(impl.getValue().get(), threads - 1, millisPerRun);
+                System.out.printf("%-28s %8d %,16d%n", impl.getKey(), threads, nanosPerWrite);
+            }
+        }
+    }
+
+    // 1, 2, 4 ... up to twice the number of cores
+    static int[] threadCounts() {
+        return BenchmarkHarness.powersOfTwo(Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+    }
+
+    /**
+     * Average latency of write() while {@code readers} threads read continuously. The writer pauses ~10µs
+     * between writes so that the readers can get back in (and, for ReaderBiasedLock, re-enable the bias).
+     */
+    static long writeCost(ReadWriteResource resource, int readers, long millis) throws InterruptedException {
+        CountDownLatch readersStarted = new CountDownLatch(readers);
+        CountDownLatch readersDone = new CountDownLatch(readers);
+        AtomicLong checksum = new AtomicLong();
+        stopReaders = false;
+
+        for (int r = 0; r < readers; r++) {
+            Thread reader = new Thread(() -> {
+                long local = 0;
+                readersStarted.countDown();
+                while (true) {
+                    for (int i = 0; i < 256; i++) {
+                        local += resource.read();
+                    }
+                    if (stopReaders) { // a plain volatile read - no shared monitor in the read path we measure
+                        break;
+                    }
+                }
+                checksum.addAndGet(local);
+                readersDone.countDown();
+            });
+            reader.setDaemon(true);
+            reader.start();
+        }
+        readersStarted.await();
+
+        long writes = 0;
+        long writeNanos = 0;
+        long end = System.nanoTime() + millis * 1_000_000L;
+        while (System.nanoTime() < end) {
+            long start = System.nanoTime();
+            resource.write((int) writes);
+            writeNanos += System.nanoTime() - start;
+            writes++;
+            long pauseUntil = System.nanoTime() + 10_000;
+            while (System.nanoTime() < pauseUntil) {
+                Thread.onSpinWait();
+            }
+        }
+
+        stopReaders = true;
+        readersDone.await();
+        BenchmarkHarness.consume(checksum.get());
+        return writes == 0 ? 0 : writeNanos / writes;
+    }
+
+    /**
+     * Runs {@code threads} workers against the resource for {@code millis} ms and returns operations per second.
+     */
+    static long run(ReadWriteResource resource, int threads, int readPercent, long millis) throws InterruptedException {
+        return BenchmarkHarness.run(threads, millis, index -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return () -> {
+                long checksum = 0;
+                for (int i = 0; i < BenchmarkHarness.BATCH_SIZE; i++) {
+                    if (random.nextInt(100) < readPercent) {
+                        checksum += resource.read();
+                    } else {
+                        resource.write(random.nextInt());
+                    }
+                }
+                BenchmarkHarness.consume(checksum);
+                return BenchmarkHarness.BATCH_SIZE;
+            };
+        }).perSecond();
+    }
+}
@@ -0,0 +1,188 @@
+package multithreading.reader_write_problem;
+
+import multithreading.metrics.LogLinearHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * "Config writers behind a steady stream of readers": which lock keeps the p99 write wait bounded without
+ * collapsing read throughput?
+ *
+ * Many reader threads read back to back (each read holds the lock for ~HOLD_NANOS so the read lock is
+ * practically never free), while WRITERS threads write about once per millisecond. For every lock the run
+ * reports reads/writes per second and the reader/writer wait-time percentiles.
+ *
+ * Usage: ReadWritePolicyBenchmark [millisPerRun] [readerThreads]
+ */
+public class ReadWritePolicyBenchmark {
+
+    private static final int WRITERS = 2;
+    private static final long HOLD_NANOS = 5_000;
+    private static final long WRITER_PAUSE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    // The four operations the benchmark needs, plus the two histograms to report
+    interface MeasuredLock {
+        void lockRead();
+
+        void unlockRead();
+
+        void lockWrite();
+
+        void unlockWrite();
+
+        LogLinearHistogram readerWaitTimes();
+
+        LogLinearHistogram writerWaitTimes();
+    }
+
+    // ReentrantReadWriteLock doesn't record wait times itself, so the adapter does
+    static MeasuredLock reentrant(boolean fair) {
+        ReentrantReadWriteLock lock = new ReentrantReadWriteLock(fair);
+        LogLinearHistogram readerWaits = LogLinearHistogram.forLatencies(1, TimeUnit.HOURS, 2);
+        LogLinearHistogram writerWaits = LogLinearHistogram.forLatencies(1, TimeUnit.HOURS, 2);
+        return new MeasuredLock() {
+            @Override
+            public void lockRead() {
+                long start = System.nanoTime();
+                lock.readLock().lock();
+                readerWaits.record(System.nanoTime() - start);
+            }
+
+            @Override
+            public void unlockRead() {
+                lock.readLock().unlock();
+            }
+
+            @Override
+            public void lockWrite() {
+                long start = System.nanoTime();
+                lock.writeLock().lock();
+                writerWaits.record(System.nanoTime() - start);
+            }
+
+            @Override
+            public void unlockWrite() {
+                lock.writeLock().unlock();
+            }
+
+            @Override
+            public LogLinearHistogram readerWaitTimes() {
+                return readerWaits;
+            }
+
+            @Override
+            public LogLinearHistogram writerWaitTimes() {
+                return writerWaits;
+            }
+        };
+    }
+
+    static MeasuredLock policy(PolicyReadWriteLock.Policy policy) {
+        PolicyReadWriteLock lock = new PolicyReadWriteLock(policy);
+        return new MeasuredLock() {
+            @Override
+            public void lockRead() {
+                lock.lockRead();
+            }
+
+            @Override
+            public void unlockRead() {
+                lock.unlockRead();
+            }
+
+            @Override
+            public void lockWrite() {
+                lock.lockWrite();
+            }
+
+            @Override
+            public void unlockWrite() {
+                lock.unlockWrite();
+            }
+
+            @Override
+            public LogLinearHistogram readerWaitTimes() {
+                return lock.readerWaitTimes();
+            }
+
+            @Override
+            public LogLinearHistogram writerWaitTimes() {
+                return lock.writerWaitTimes();
+            }
+        };
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        long millisPerRun = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+        int readers = args.length > 1 ? Integer.parseInt(args[1]) : Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+        System.out.printf("%d readers, %d writers (one write per ~%dus each)%n", readers, WRITERS, WRITER_PAUSE_NANOS / 1000);
+        System.out.printf("%-26s %12s %10s | %12s %12s | %12s %12s %12s%n",
+                "lock", "reads/s", "writes/s", "read p50", "read p99", "write p50", "write p99", "write max");
+
+        report("RRWL non-fair (default)", reentrant(false), readers, millisPerRun);
+        report("RRWL fair", reentrant(true), readers, millisPerRun);
+        for (PolicyReadWriteLock.Policy policy : PolicyReadWriteLock.Policy.values()) {
+            report(policy.name(), policy(policy), readers, millisPerRun);
+        }
+    }
+
+    private static void report(String name, MeasuredLock lock, int readers, long millis) throws InterruptedException {
+        LongAdder reads = new LongAdder();
+        LongAdder writes = new LongAdder();
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int r = 0; r < readers; r++) {
+            threads.add(new Thread(() -> {
+                while (System.nanoTime() < end) {
+                    lock.lockRead();
+                    try {
+                        busyWait(HOLD_NANOS);
+                    } finally {
+                        lock.unlockRead();
+                    }
+                    reads.increment();
+                }
+            }));
+        }
+        for (int w = 0; w < WRITERS; w++) {
+            threads.add(new Thread(() -> {
+                while (System.nanoTime() < end) {
+                    LockSupport.parkNanos(WRITER_PAUSE_NANOS);
+                    lock.lockWrite();
+                    try {
+                        busyWait(HOLD_NANOS);
+                    } finally {
+                        lock.unlockWrite();
+                    }
+                    writes.increment();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        double seconds = millis / 1000.0;
+        LogLinearHistogram.Snapshot readWaits = lock.readerWaitTimes().snapshot();
+        LogLinearHistogram.Snapshot writeWaits = lock.writerWaitTimes().snapshot();
+        System.out.printf("%-26s %,12.0f %,10.0f | %,10dns %,10dns | %,10dns %,10dns %,10dns%n", name,
+                reads.sum() / seconds, writes.sum() / seconds,
+                readWaits.percentile(50), readWaits.percentile(99),
+                writeWaits.percentile(50), writeWaits.percentile(99), writeWaits.max());
+    }
+
+    private static void busyWait(long nanos) {
+        long until = System.nanoTime() + nanos;
+        while (System.nanoTime() < until) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package multithreading.reader_write_problem;
+
+/**
+ * Contract shared by every implementation of the reader/writer resource.
+ *
+ * readData()/writeData() are the demo operations - they print and sleep so the interleaving is visible on the console.
+ * read()/write() are the bare operations (no printing, no sleeping) used by the benchmarks.
+ */
+interface ReadWriteResource {
+
+    void readData(String readerName);
+
+    void writeData(String writerName, int newValue);
+
+    int read();
+
+    void write(int newValue);
+}
@@ -2,10 +2,10 @@ package multithreading.reader_write_problem;
 
 // Reader thread
 class Reader implements Runnable {
-    private final SharedData sharedData;
+    private final ReadWriteResource sharedData;
     private final String name;
 
-    public Reader(SharedData sharedData, String name) {
+    public Reader(ReadWriteResource sharedData, String name) {
         this.sharedData = sharedData;
         this.name = name;
     }
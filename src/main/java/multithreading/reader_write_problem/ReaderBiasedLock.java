@@ -0,0 +1,135 @@
+package multithreading.reader_write_problem;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Reader-biased reader/writer lock (the BRAVO idea: "Biased Locking for Reader-Writer Locks").
+ *
+ * Problem with ReentrantReadWriteLock for read-mostly data:
+ * every readLock()/unlock() CASes the same state word, so all cores fight over one cache line even when
+ * there is no writer at all.
+ *
+ * ✅ How the bias works:
+ * 1. While the lock is READ-BIASED a reader doesn't touch the underlying lock. It claims one slot of a
+ *    "visible readers" table (slot picked from its thread id, every slot on its own cache line), then
+ *    re-checks the bias. Different readers write to different cache lines → no shared writes.
+ *
+ * 2. A writer takes the underlying write lock, REVOKES the bias (readBias = false) and waits until every
+ *    slot is empty, i.e. all in-flight fast-path readers have drained. New readers see the revoked bias and
+ *    take the slow path (the underlying read lock), which the writer is holding off.
+ *
+ * 3. Revocation is expensive (a scan of the whole table), so after one the bias stays off for
+ *    INHIBIT_MULTIPLIER times as long as the revocation took. A slow-path reader turns it back on later.
+ *
+ * ✅ Why the reader's "claim slot, then check bias" is safe:
+ * reader: write slot → read readBias        writer: write readBias → read slots
+ * Both are volatile accesses, so at least one side sees the other: either the reader sees the revoked bias
+ * and backs out, or the writer sees the claimed slot and waits for it.
+ *
+ * The API is stamp based like StampedLock: readLock() returns a token that must be passed to unlockRead().
+ * Not reentrant.
+ */
+public class ReaderBiasedLock {
+
+    private static final int PADDING = 16;            // 16 references ≥ one 64-byte cache line
+    private static final long INHIBIT_MULTIPLIER = 9; // bias stays off 9x the revocation time
+    private static final long SLOW_PATH = 0;          // token of a reader that holds the underlying read lock
+
+    private final ReentrantReadWriteLock underlying = new ReentrantReadWriteLock();
+    private final AtomicReferenceArray<Thread> visibleReaders;
+    private final int slotMask;
+
+    private volatile boolean readBias = true;
+    private volatile long inhibitUntil;
+
+    private final LongAdder slowReads = new LongAdder();
+    private final LongAdder revocations = new LongAdder();
+    private final LongAdder revocationNanos = new LongAdder();
+
+    public ReaderBiasedLock() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    public ReaderBiasedLock(int slots) {
+        int size = Integer.highestOneBit(Math.max(1, slots));
+        if (size < slots) {
+            size <<= 1;
+        }
+        this.slotMask = size - 1;
+        this.visibleReaders = new AtomicReferenceArray<>(size * PADDING);
+    }
+
+    /**
+     * @return token for unlockRead()
+     */
+    public long readLock() {
+        if (readBias) {
+            Thread current = Thread.currentThread();
+            int index = slotIndex(current);
+            if (visibleReaders.get(index) == null && visibleReaders.compareAndSet(index, null, current)) {
+                if (readBias) {
+                    return index + 1L; // fast path: only our own slot was written
+                }
+                visibleReaders.set(index, null); // a writer is revoking, back out
+            }
+        }
+
+        // Slow path: slot taken by another thread (hash collision) or the bias is revoked
+        underlying.readLock().lock();
+        slowReads.increment();
+        if (!readBias && System.nanoTime() >= inhibitUntil) {
+            readBias = true; // safe: we hold the read lock, so no writer is inside or revoking
+        }
+        return SLOW_PATH;
+    }
+
+    public void unlockRead(long token) {
+        if (token == SLOW_PATH) {
+            underlying.readLock().unlock();
+        } else {
+            visibleReaders.set((int) (token - 1), null);
+        }
+    }
+
+    public void writeLock() {
+        underlying.writeLock().lock();
+        if (readBias) {
+            long start = System.nanoTime();
+            readBias = false;
+            // Wait for the in-flight fast-path readers to drain
+            for (int i = 0; i < visibleReaders.length(); i += PADDING) {
+                while (visibleReaders.get(i) != null) {
+                    Thread.onSpinWait();
+                }
+            }
+            long now = System.nanoTime();
+            revocations.increment();
+            revocationNanos.add(now - start);
+            inhibitUntil = now + (now - start) * INHIBIT_MULTIPLIER;
+        }
+    }
+
+    public void unlockWrite() {
+        underlying.writeLock().unlock();
+    }
+
+    private int slotIndex(Thread thread) {
+        long h = thread.getId() * 0x9E3779B97F4A7C15L; // Fibonacci hashing spreads consecutive ids
+        return ((int) (h >>> 32) & slotMask) * PADDING;
+    }
+
+    public long slowReads() {
+        return slowReads.sum();
+    }
+
+    public long revocations() {
+        return revocations.sum();
+    }
+
+    public long averageRevocationNanos() {
+        long count = revocations.sum();
+        return count == 0 ? 0 : revocationNanos.sum() / count;
+    }
+}
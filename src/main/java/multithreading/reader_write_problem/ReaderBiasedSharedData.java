@@ -0,0 +1,59 @@
+package multithreading.reader_write_problem;
+
+// Shared resource guarded by a ReaderBiasedLock (readers don't write to any shared cache line)
+class ReaderBiasedSharedData implements ReadWriteResource {
+    private int data = 0;  // Simulated shared resource
+
+    private final ReaderBiasedLock lock = new ReaderBiasedLock();
+
+    // Reader thread reads the data
+    @Override
+    public void readData(String readerName) {
+        long token = lock.readLock();  // Acquire read lock
+        try {
+            System.out.println(readerName + " is reading: " + data);
+            Thread.sleep(1000); // Simulate time taken to read
+            System.out.println(readerName + " finished reading");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlockRead(token);  // Release read lock
+        }
+    }
+
+    // Writer thread writes/updates the data
+    @Override
+    public void writeData(String writerName, int newValue) {
+        lock.writeLock();  // Acquire write lock (revokes the read bias)
+        try {
+            System.out.println(writerName + " is writing: " + newValue);
+            Thread.sleep(1500); // Simulate time taken to write
+            this.data = newValue;
+            System.out.println(writerName + " finished writing");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlockWrite();  // Release write lock
+        }
+    }
+
+    @Override
+    public int read() {
+        long token = lock.readLock();
+        try {
+            return data;
+        } finally {
+            lock.unlockRead(token);
+        }
+    }
+
+    @Override
+    public void write(int newValue) {
+        lock.writeLock();
+        try {
+            this.data = newValue;
+        } finally {
+            lock.unlockWrite();
+        }
+    }
+}
@@ -2,8 +2,13 @@ package multithreading.reader_write_problem;
 
 // Main class to test
 public class ReaderWriterProblem {
+    /**
+     * The first argument selects the implementation:
+     * stamped | biased | flat-combining | reader-preference | writer-preference | phase-fair
+     * Without one the (non-fair) ReentrantReadWriteLock version is used.
+     */
     public static void main(String[] args) {
-        SharedData sharedData = new SharedData();
+        ReadWriteResource sharedData = createSharedData(args.length > 0 ? args[0] : "");
 
         // Start multiple reader threads
         for (int i = 1; i <= 3; i++) {
@@ -31,4 +36,23 @@ public class ReaderWriterProblem {
             new Thread(new Reader(sharedData, "Reader-4")).start();
         }).start();
     }
+
+    static ReadWriteResource createSharedData(String mode) {
+        switch (mode.toLowerCase()) {
+            case "stamped":
+                return new StampedSharedData();
+            case "biased":
+                return new ReaderBiasedSharedData();
+            case "flat-combining":
+                return new FlatCombiningSharedData();
+            case "reader-preference":
+                return new PolicySharedData(PolicyReadWriteLock.Policy.READER_PREFERENCE);
+            case "writer-preference":
+                return new PolicySharedData(PolicyReadWriteLock.Policy.WRITER_PREFERENCE);
+            case "phase-fair":
+                return new PolicySharedData(PolicyReadWriteLock.Policy.PHASE_FAIR);
+            default:
+                return new SharedData();
+        }
+    }
 }
\ No newline at end of file
@@ -3,7 +3,7 @@ package multithreading.reader_write_problem;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 // Shared resource
-class SharedData {
+class SharedData implements ReadWriteResource {
     private int data = 0;  // Simulated shared resource
 
     /**
@@ -25,6 +25,7 @@ class SharedData {
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
 
     // Reader thread reads the data
+    @Override
     public void readData(String readerName) {
         lock.readLock().lock();  // Acquire read lock
         try {
@@ -39,6 +40,7 @@ class SharedData {
     }
 
     // Writer thread writes/updates the data
+    @Override
     public void writeData(String writerName, int newValue) {
         lock.writeLock().lock();  // Acquire write lock
         try {
@@ -52,6 +54,26 @@ class SharedData {
             lock.writeLock().unlock();  // Release write lock
         }
     }
+
+    @Override
+    public int read() {
+        lock.readLock().lock();
+        try {
+            return data;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void write(int newValue) {
+        lock.writeLock().lock();
+        try {
+            this.data = newValue;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
 }
 
 
@@ -0,0 +1,90 @@
+package multithreading.reader_write_problem;
+
+import java.util.concurrent.locks.StampedLock;
+
+// Shared resource guarded by a StampedLock (optimistic reads)
+class StampedSharedData implements ReadWriteResource {
+    private int data = 0;  // Simulated shared resource
+
+    /**
+     * Why StampedLock?
+     *
+     * Even the read lock of a ReentrantReadWriteLock is a WRITE to shared memory: every reader CASes the same
+     * state word to bump the reader count, and CASes it again on unlock. With many cores reading at once that
+     * single cache line keeps bouncing between them, so "parallel" readers end up queueing on the hardware.
+     *
+     * StampedLock adds a third mode - the OPTIMISTIC READ:
+     *
+     * 1. tryOptimisticRead() only reads the lock state and returns a stamp (no write, no blocking).
+     *
+     * 2. We read the fields into locals.
+     *
+     * 3. validate(stamp) checks that no writer acquired the lock in the meantime.
+     *    - valid   → the values we copied are consistent, we are done.
+     *    - invalid → a writer raced with us, so we fall back to a real read lock and read again.
+     *
+     * In the common case (no writer) a reader never writes to shared memory, so reads scale with cores.
+     *
+     * ⚠️ Rules of optimistic reading:
+     * 1. Copy fields into locals first, use them only after validate() succeeds.
+     *
+     * 2. StampedLock is NOT reentrant and has no Conditions - keep the critical sections flat.
+     */
+    private final StampedLock lock = new StampedLock();
+
+    // Reader thread reads the data
+    @Override
+    public void readData(String readerName) {
+        int value = read();
+        System.out.println(readerName + " is reading: " + value);
+        try {
+            // The value is already a consistent copy, so "reading" it doesn't have to block writers
+            Thread.sleep(1000); // Simulate time taken to read
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.out.println(readerName + " finished reading");
+    }
+
+    // Writer thread writes/updates the data
+    @Override
+    public void writeData(String writerName, int newValue) {
+        long stamp = lock.writeLock();  // Acquire write lock
+        try {
+            System.out.println(writerName + " is writing: " + newValue);
+            Thread.sleep(1500); // Simulate time taken to write
+            this.data = newValue;
+            System.out.println(writerName + " finished writing");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlockWrite(stamp);  // Release write lock
+        }
+    }
+
+    @Override
+    public int read() {
+        long stamp = lock.tryOptimisticRead();  // No lock taken, just a version stamp
+        int value = data;
+        if (!lock.validate(stamp)) {
+            // A writer got in between → fall back to a pessimistic read lock
+            stamp = lock.readLock();
+            try {
+                value = data;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public void write(int newValue) {
+        long stamp = lock.writeLock();
+        try {
+            this.data = newValue;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package multithreading.reader_write_problem;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiFunction;
+
+/**
+ * Key-partitioned map - SharedData's single value/single lock, multiplied by N.
+ *
+ * Keys are hashed onto N stripes, every stripe is a plain HashMap with its own StampedLock. Two threads only
+ * contend when their keys land on the same stripe, so with enough stripes writers to different keys run in
+ * parallel instead of queueing on one global lock.
+ *
+ * ✅ Single-key operations lock exactly one stripe:
+ * get()     → read lock (not an optimistic read: a HashMap being resized is not safe to read without one)
+ * put()     → write lock
+ * compute() → write lock (the remapping function runs under it, so keep it short)
+ *
+ * ✅ Bulk operations (putAll, getAll, size) lock several stripes. To make them deadlock free they ALWAYS
+ * lock stripes in ascending stripe index and unlock in reverse - the classic lock ordering rule.
+ *
+ * ✅ Contention metric:
+ * Every write acquisition first tries tryWriteLock(); if that fails the stripe was busy and the acquisition
+ * counts as contended. Same for reads that found a writer inside. stripeReport() lists stripes by
+ * contended acquisitions - a stripe far above the others points at hot keys (or too few stripes).
+ */
+public class StripedMap<K, V> {
+
+    private final Stripe<K, V>[] stripes;
+    private final int mask;
+
+    private static final class Stripe<K, V> {
+        final StampedLock lock = new StampedLock();
+        final Map<K, V> map = new HashMap<>();
+        final LongAdder acquisitions = new LongAdder();
+        final LongAdder contended = new LongAdder();
+
+        long writeLock() {
+            acquisitions.increment();
+            long stamp = lock.tryWriteLock();
+            if (stamp == 0) {
+                contended.increment();
+                stamp = lock.writeLock();
+            }
+            return stamp;
+        }
+
+        long readLock() {
+            acquisitions.increment();
+            long stamp = lock.tryReadLock();
+            if (stamp == 0) {
+                contended.increment();
+                stamp = lock.readLock();
+            }
+            return stamp;
+        }
+    }
+
+    /**
+     * @param stripeCount rounded up to the next power of two so the stripe index is a mask instead of a modulo
+     */
+    @SuppressWarnings("unchecked")
+    public StripedMap(int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("stripeCount must be positive: " + stripeCount);
+        }
+        int size = Integer.highestOneBit(stripeCount);
+        if (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = (Stripe<K, V>[]) new Stripe<?, ?>[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe<>();
+        }
+        this.mask = size - 1;
+    }
+
+    public StripedMap() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    private int stripeIndex(Object key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & mask; // spread the high bits like HashMap does
+    }
+
+    // ---------------------------------------------------------------- single key
+
+    public V get(K key) {
+        Stripe<K, V> stripe = stripes[stripeIndex(key)];
+        long stamp = stripe.readLock();
+        try {
+            return stripe.map.get(key);
+        } finally {
+            stripe.lock.unlockRead(stamp);
+        }
+    }
+
+    public V put(K key, V value) {
+        Stripe<K, V> stripe = stripes[stripeIndex(key)];
+        long stamp = stripe.writeLock();
+        try {
+            return stripe.map.put(key, value);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    public V remove(K key) {
+        Stripe<K, V> stripe = stripes[stripeIndex(key)];
+        long stamp = stripe.writeLock();
+        try {
+            return stripe.map.remove(key);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Atomically recomputes the value of one key (null result removes the key), same contract as Map.compute().
+     */
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remapping) {
+        Stripe<K, V> stripe = stripes[stripeIndex(key)];
+        long stamp = stripe.writeLock();
+        try {
+            return stripe.map.compute(key, remapping);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    // ---------------------------------------------------------------- bulk (fixed stripe order)
+
+    /**
+     * All entries become visible together: every stripe involved is write locked before the first put.
+     */
+    public void putAll(Map<? extends K, ? extends V> entries) {
+        TreeMap<Integer, List<Map.Entry<? extends K, ? extends V>>> byStripe = new TreeMap<>();
+        for (Map.Entry<? extends K, ? extends V> entry : entries.entrySet()) {
+            byStripe.computeIfAbsent(stripeIndex(entry.getKey()), i -> new ArrayList<>()).add(entry);
+        }
+
+        int[] order = byStripe.keySet().stream().mapToInt(Integer::intValue).toArray(); // ascending
+        long[] stamps = new long[order.length];
+        for (int i = 0; i < order.length; i++) {
+            stamps[i] = stripes[order[i]].writeLock();
+        }
+        try {
+            for (int i = 0; i < order.length; i++) {
+                Map<K, V> map = stripes[order[i]].map;
+                for (Map.Entry<? extends K, ? extends V> entry : byStripe.get(order[i])) {
+                    map.put(entry.getKey(), entry.getValue());
+                }
+            }
+        } finally {
+            for (int i = order.length - 1; i >= 0; i--) {
+                stripes[order[i]].lock.unlockWrite(stamps[i]);
+            }
+        }
+    }
+
+    /**
+     * Consistent read of several keys: all stripes involved are read locked at the same time.
+     */
+    public Map<K, V> getAll(Collection<? extends K> keys) {
+        TreeMap<Integer, List<K>> byStripe = new TreeMap<>();
+        for (K key : keys) {
+            byStripe.computeIfAbsent(stripeIndex(key), i -> new ArrayList<>()).add(key);
+        }
+
+        int[] order = byStripe.keySet().stream().mapToInt(Integer::intValue).toArray(); // ascending
+        long[] stamps = new long[order.length];
+        for (int i = 0; i < order.length; i++) {
+            stamps[i] = stripes[order[i]].readLock();
+        }
+        try {
+            Map<K, V> result = new HashMap<>();
+            for (int i = 0; i < order.length; i++) {
+                Map<K, V> map = stripes[order[i]].map;
+                for (K key : byStripe.get(order[i])) {
+                    V value = map.get(key);
+                    if (value != null) {
+                        result.put(key, value);
+                    }
+                }
+            }
+            return result;
+        } finally {
+            for (int i = order.length - 1; i >= 0; i--) {
+                stripes[order[i]].lock.unlockRead(stamps[i]);
+            }
+        }
+    }
+
+    /**
+     * Exact size: read locks every stripe (in order), so use it for reporting, not on hot paths.
+     */
+    public int size() {
+        long[] stamps = new long[stripes.length];
+        for (int i = 0; i < stripes.length; i++) {
+            stamps[i] = stripes[i].readLock();
+        }
+        try {
+            int size = 0;
+            for (Stripe<K, V> stripe : stripes) {
+                size += stripe.map.size();
+            }
+            return size;
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].lock.unlockRead(stamps[i]);
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------- contention metric
+
+    public long contendedAcquisitions(int stripe) {
+        return stripes[stripe].contended.sum();
+    }
+
+    /**
+     * The {@code top} most contended stripes: index, acquisitions, contended acquisitions and their ratio.
+     */
+    public String stripeReport(int top) {
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < stripes.length; i++) {
+            indexes.add(i);
+        }
+        indexes.sort((a, b) -> Long.compare(stripes[b].contended.sum(), stripes[a].contended.sum()));
+
+        StringBuilder report = new StringBuilder(String.format("%-8s %14s %12s %8s%n", "stripe", "acquisitions", "contended", "ratio"));
+        for (int i = 0; i < Math.min(top, indexes.size()); i++) {
+            Stripe<K, V> stripe = stripes[indexes.get(i)];
+            long acquisitions = stripe.acquisitions.sum();
+            long contended = stripe.contended.sum();
+            report.append(String.format("%-8d %,14d %,12d %7.2f%%%n", indexes.get(i), acquisitions, contended,
+                    acquisitions == 0 ? 0.0 : 100.0 * contended / acquisitions));
+        }
+        return report.toString();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        StripedMap<String, Integer> map = new StripedMap<>(16);
+
+        // Every thread hammers the same "hot" key plus some random ones
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final int id = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    map.compute("hot-key", (k, v) -> v == null ? 1 : v + 1);
+                    map.put("key-" + id + "-" + (i % 1000), i);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        System.out.println("hot-key = " + map.get("hot-key") + " (expected 400000)");
+        System.out.println("size    = " + map.size());
+        System.out.print(map.stripeReport(5));
+    }
+}
@@ -0,0 +1,130 @@
+package multithreading.reader_write_problem;
+
+import multithreading.benchmark.BenchmarkHarness;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * StripedMap vs ConcurrentHashMap vs one HashMap behind one global ReentrantReadWriteLock (the SharedData way).
+ *
+ * Workload: uniform random keys out of KEY_SPACE, 90% get / 10% put, thread counts from 1 to 2x cores.
+ *
+ * Usage: StripedMapBenchmark [millisPerRun] [stripeCount]
+ */
+public class StripedMapBenchmark {
+
+    private static final int KEY_SPACE = 100_000;
+    private static final int READ_PERCENT = 90;
+
+    // Just what the benchmark needs from every map
+    interface KeyValueStore {
+        Integer get(Integer key);
+
+        void put(Integer key, Integer value);
+    }
+
+    static class GlobalLockMap implements KeyValueStore {
+        private final Map<Integer, Integer> map = new HashMap<>();
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        @Override
+        public Integer get(Integer key) {
+            lock.readLock().lock();
+            try {
+                return map.get(key);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public void put(Integer key, Integer value) {
+            lock.writeLock().lock();
+            try {
+                map.put(key, value);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        long millisPerRun = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        int stripeCount = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors() * 4;
+
+        Map<String, Supplier<KeyValueStore>> implementations = new LinkedHashMap<>();
+        implementations.put("global ReentrantReadWriteLock", GlobalLockMap::new);
+        implementations.put("StripedMap(" + stripeCount + ")", () -> {
+            StripedMap<Integer, Integer> map = new StripedMap<>(stripeCount);
+            return new KeyValueStore() {
+                @Override
+                public Integer get(Integer key) {
+                    return map.get(key);
+                }
+
+                @Override
+                public void put(Integer key, Integer value) {
+                    map.put(key, value);
+                }
+            };
+        });
+        implementations.put("ConcurrentHashMap", () -> {
+            ConcurrentHashMap<Integer, Integer> map = new ConcurrentHashMap<>();
+            return new KeyValueStore() {
+                @Override
+                public Integer get(Integer key) {
+                    return map.get(key);
+                }
+
+                @Override
+                public void put(Integer key, Integer value) {
+                    map.put(key, value);
+                }
+            };
+        });
+
+        System.out.printf("%d%% get / %d%% put over %,d keys%n", READ_PERCENT, 100 - READ_PERCENT, KEY_SPACE);
+        System.out.printf("%-32s %8s %16s%n", "implementation", "threads", "ops/sec");
+        for (int threads : ReadWriteLockBenchmark.threadCounts()) {
+            for (Map.Entry<String, Supplier<KeyValueStore>> impl : implementations.entrySet()) {
+                run(prefilled(impl.getValue()), threads, millisPerRun / 5); // warm-up
+                long opsPerSec = run(prefilled(impl.getValue()), threads, millisPerRun);
+                System.out.printf("%-32s %8d %,16d%n", impl.getKey(), threads, opsPerSec);
+            }
+        }
+    }
+
+    private static KeyValueStore prefilled(Supplier<KeyValueStore> factory) {
+        KeyValueStore store = factory.get();
+        for (int key = 0; key < KEY_SPACE; key++) {
+            store.put(key, key);
+        }
+        return store;
+    }
+
+    private static long run(KeyValueStore store, int threads, long millis) throws InterruptedException {
+        return BenchmarkHarness.run(threads, millis, index -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return () -> {
+                long checksum = 0;
+                for (int i = 0; i < BenchmarkHarness.BATCH_SIZE; i++) {
+                    Integer key = random.nextInt(KEY_SPACE);
+                    if (random.nextInt(100) < READ_PERCENT) {
+                        Integer value = store.get(key);
+                        checksum += value == null ? 0 : value;
+                    } else {
+                        store.put(key, i);
+                    }
+                }
+                BenchmarkHarness.consume(checksum);
+                return BenchmarkHarness.BATCH_SIZE;
+            };
+        }).perSecond();
+    }
+}
@@ -0,0 +1,387 @@
+package multithreading.reader_write_problem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Multi-key, multi-version (MVCC) store - SharedData grown up.
+ *
+ * With SharedData readers and writers block each other on the ReentrantReadWriteLock. Here they never do:
+ *
+ * 1. Every key points to a chain of IMMUTABLE versions (newest first). A write never changes a version,
+ *    it installs a new one on top of the chain with a CAS.
+ *
+ * 2. Every commit gets a timestamp from a global clock. A reader takes a SNAPSHOT = "the clock right now"
+ *    and for every key walks the chain to the newest version committed at or before that timestamp.
+ *    Since committed versions never change, all keys read through one snapshot are a consistent
+ *    point-in-time view - no matter how many writers commit in the meantime, and without any lock.
+ *
+ * 3. Old versions that no open snapshot can see any more are cut off by a background reclaimer thread.
+ *
+ * ✅ How a commit becomes visible atomically across keys:
+ * All versions of one commit share a Commit object whose timestamp starts as ACTIVE (invisible to everyone).
+ * The writer first installs all its versions, then takes a timestamp from the clock and publishes it in one
+ * volatile write - from that moment all of its versions become visible together.
+ *
+ * ✅ Write-write conflicts (first writer wins):
+ * A writer never installs on top of a version whose commit is still in flight. If it finds one it rolls back
+ * the versions it already installed and retries. So along a chain timestamps always decrease.
+ *
+ * ✅ Read-modify-write:
+ * commit(snapshot, writes) additionally refuses to overwrite a key that somebody else committed after the
+ * snapshot was taken (snapshot isolation) - the caller re-reads through a new snapshot and tries again.
+ */
+public class VersionedStore<K, V> implements AutoCloseable {
+
+    // Commit states; a committed commit holds its (positive) timestamp instead
+    private static final long ACTIVE = -1;      // versions being installed, invisible to every reader
+    private static final long COMMITTING = -2;  // taking its timestamp, visible in a few instructions
+
+    // Returned by commit(snapshot, writes) when a key was changed after the snapshot
+    public static final long STALE = -1;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final ConcurrentHashMap<K, AtomicReference<Version<V>>> heads = new ConcurrentHashMap<>();
+
+    // Open snapshots ordered by timestamp → first() is the oldest one still in use
+    private final ConcurrentSkipListSet<Snapshot> openSnapshots = new ConcurrentSkipListSet<>();
+    private final AtomicLong snapshotIds = new AtomicLong();
+
+    /**
+     * Reclaim horizon. Snapshots older than this may already have lost versions, so snapshot() never
+     * hands out a timestamp below it (see snapshot() for the handshake with the reclaimer).
+     */
+    private volatile long horizon;
+
+    private final ScheduledExecutorService reclaimer;
+    private final LongAdder writeConflicts = new LongAdder();
+    private final AtomicLong versionsReclaimed = new AtomicLong();
+
+    private static final class Commit {
+        volatile long timestamp = ACTIVE;
+    }
+
+    private static final class Version<V> {
+        final V value;              // null = key deleted
+        final Commit commit;
+        volatile Version<V> previous;
+
+        Version(V value, Commit commit, Version<V> previous) {
+            this.value = value;
+            this.commit = commit;
+            this.previous = previous;
+        }
+    }
+
+    public VersionedStore(long reclaimIntervalMillis) {
+        this.reclaimer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "mvcc-reclaimer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reclaimer.scheduleWithFixedDelay(this::reclaim, reclaimIntervalMillis, reclaimIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // ---------------------------------------------------------------- writes
+
+    public long put(K key, V value) {
+        return commit(Collections.singletonMap(key, value));
+    }
+
+    public long remove(K key) {
+        return commit(Collections.singletonMap(key, null));
+    }
+
+    /**
+     * Atomically installs all the writes (a null value deletes the key) and returns the commit timestamp.
+     * A snapshot sees either all of them or none of them.
+     */
+    public long commit(Map<? extends K, ? extends V> writes) {
+        return commit(writes, Long.MAX_VALUE);
+    }
+
+    /**
+     * Like commit(writes), but returns STALE without changing anything if one of the keys was committed by
+     * somebody else after {@code basis} was taken.
+     */
+    public long commit(Snapshot basis, Map<? extends K, ? extends V> writes) {
+        basis.checkOpen();
+        return commit(writes, basis.timestamp);
+    }
+
+    private long commit(Map<? extends K, ? extends V> writes, long basisTimestamp) {
+        List<AtomicReference<Version<V>>> installed = new ArrayList<>(writes.size());
+        while (true) {
+            Commit commit = new Commit();
+            installed.clear();
+            boolean conflict = false;
+            boolean stale = false;
+
+            for (Map.Entry<? extends K, ? extends V> write : writes.entrySet()) {
+                AtomicReference<Version<V>> head = heads.computeIfAbsent(write.getKey(), k -> new AtomicReference<>());
+                Version<V> current = head.get();
+                long currentTimestamp = current == null ? 0 : current.commit.timestamp;
+                if (currentTimestamp < 0) {
+                    conflict = true; // another writer is mid-commit on this key
+                    break;
+                }
+                if (currentTimestamp > basisTimestamp) {
+                    stale = true;    // changed after the caller's snapshot
+                    break;
+                }
+                if (!head.compareAndSet(current, new Version<>(write.getValue(), commit, current))) {
+                    conflict = true;
+                    break;
+                }
+                installed.add(head);
+            }
+
+            if (!conflict && !stale) {
+                commit.timestamp = COMMITTING;
+                long timestamp = clock.incrementAndGet();
+                commit.timestamp = timestamp; // all versions of this commit become visible together
+                return timestamp;
+            }
+
+            // Roll back: nobody installs on top of an ACTIVE version, so ours are still the heads
+            for (AtomicReference<Version<V>> head : installed) {
+                head.set(head.get().previous);
+            }
+            if (stale) {
+                return STALE;
+            }
+            writeConflicts.increment();
+            Thread.yield();
+        }
+    }
+
+    // ---------------------------------------------------------------- reads
+
+    /**
+     * Latest committed value, without opening a snapshot.
+     */
+    public V get(K key) {
+        AtomicReference<Version<V>> head = heads.get(key);
+        return head == null ? null : visibleValue(head.get(), Long.MAX_VALUE);
+    }
+
+    /**
+     * Opens a point-in-time view over all keys. Close it (try-with-resources) so its versions can be reclaimed.
+     *
+     * Handshake with the reclaimer (both sides use volatile/linearizable operations):
+     * - we register the snapshot, then read the horizon;
+     * - the reclaimer publishes the horizon, then reads the oldest registered snapshot.
+     * Either the reclaimer sees our snapshot and keeps its versions, or we see the new horizon and retry
+     * with a fresher timestamp.
+     */
+    public Snapshot snapshot() {
+        while (true) {
+            Snapshot snapshot = new Snapshot(clock.get(), snapshotIds.incrementAndGet());
+            openSnapshots.add(snapshot);
+            if (snapshot.timestamp >= horizon) {
+                return snapshot;
+            }
+            openSnapshots.remove(snapshot);
+        }
+    }
+
+    private V visibleValue(Version<V> version, long snapshotTimestamp) {
+        while (version != null) {
+            long committedAt = version.commit.timestamp;
+            while (committedAt == COMMITTING) {
+                // The writer already has its timestamp and is about to publish it
+                Thread.onSpinWait();
+                committedAt = version.commit.timestamp;
+            }
+            if (committedAt > 0 && committedAt <= snapshotTimestamp) {
+                return version.value;
+            }
+            version = version.previous; // ACTIVE (not committed yet) or committed after our snapshot
+        }
+        return null;
+    }
+
+    public class Snapshot implements AutoCloseable, Comparable<Snapshot> {
+        private final long timestamp;
+        private final long id;
+        private volatile boolean closed;
+
+        private Snapshot(long timestamp, long id) {
+            this.timestamp = timestamp;
+            this.id = id;
+        }
+
+        public long timestamp() {
+            return timestamp;
+        }
+
+        public V get(K key) {
+            checkOpen();
+            AtomicReference<Version<V>> head = heads.get(key);
+            return head == null ? null : visibleValue(head.get(), timestamp);
+        }
+
+        /**
+         * All keys with a value as of this snapshot.
+         */
+        public Map<K, V> scan() {
+            checkOpen();
+            Map<K, V> view = new HashMap<>();
+            heads.forEach((key, head) -> {
+                V value = visibleValue(head.get(), timestamp);
+                if (value != null) {
+                    view.put(key, value);
+                }
+            });
+            return view;
+        }
+
+        private void checkOpen() {
+            if (closed) {
+                throw new IllegalStateException("Snapshot " + timestamp + " is closed");
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            openSnapshots.remove(this);
+        }
+
+        @Override
+        public int compareTo(Snapshot other) {
+            int byTimestamp = Long.compare(timestamp, other.timestamp);
+            return byTimestamp != 0 ? byTimestamp : Long.compare(id, other.id);
+        }
+    }
+
+    // ---------------------------------------------------------------- reclamation
+
+    /**
+     * For every key keeps the newest version at or below the reclaim point (it is what the oldest snapshot sees)
+     * and cuts everything older than it.
+     */
+    void reclaim() {
+        long candidate = clock.get();
+        horizon = candidate;
+        long reclaimPoint = candidate;
+        if (!openSnapshots.isEmpty()) {
+            try {
+                reclaimPoint = Math.min(candidate, openSnapshots.first().timestamp);
+            } catch (NoSuchElementException lastOneJustClosed) {
+                // fine, nothing older to protect
+            }
+        }
+
+        for (AtomicReference<Version<V>> head : heads.values()) {
+            Version<V> version = head.get();
+            while (version != null) {
+                long committedAt = version.commit.timestamp;
+                if (committedAt > 0 && committedAt <= reclaimPoint) {
+                    Version<V> cut = version.previous;
+                    version.previous = null;
+                    long count = 0;
+                    for (; cut != null; cut = cut.previous) {
+                        count++;
+                    }
+                    versionsReclaimed.addAndGet(count);
+                    break;
+                }
+                version = version.previous;
+            }
+        }
+    }
+
+    public long writeConflicts() {
+        return writeConflicts.sum();
+    }
+
+    public long versionsReclaimed() {
+        return versionsReclaimed.get();
+    }
+
+    @Override
+    public void close() {
+        reclaimer.shutdownNow();
+    }
+
+    /**
+     * Writers keep moving money between accounts (each transfer is one atomic multi-key commit) while readers
+     * scan all accounts through snapshots. Every snapshot must add up to the same total.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int accounts = 100;
+        int initialBalance = 1_000;
+
+        try (VersionedStore<Integer, Integer> store = new VersionedStore<>(10)) {
+            Map<Integer, Integer> initial = new HashMap<>();
+            for (int i = 0; i < accounts; i++) {
+                initial.put(i, initialBalance);
+            }
+            store.commit(initial);
+
+            List<Thread> threads = new ArrayList<>();
+            AtomicLong scans = new AtomicLong();
+            AtomicLong inconsistentScans = new AtomicLong();
+            long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+
+            for (int w = 0; w < 2; w++) {
+                threads.add(new Thread(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < end) {
+                        int from = random.nextInt(accounts);
+                        int to = random.nextInt(accounts);
+                        if (from == to) {
+                            continue;
+                        }
+                        // Read-modify-write through a snapshot, retried until nobody else touched the accounts
+                        long committed = STALE;
+                        while (committed == STALE) {
+                            try (VersionedStore<Integer, Integer>.Snapshot snapshot = store.snapshot()) {
+                                Map<Integer, Integer> transfer = new HashMap<>();
+                                transfer.put(from, snapshot.get(from) - 1);
+                                transfer.put(to, snapshot.get(to) + 1);
+                                committed = store.commit(snapshot, transfer);
+                            }
+                        }
+                    }
+                }, "Writer-" + w));
+            }
+            for (int r = 0; r < 4; r++) {
+                threads.add(new Thread(() -> {
+                    while (System.nanoTime() < end) {
+                        try (VersionedStore<Integer, Integer>.Snapshot snapshot = store.snapshot()) {
+                            int total = snapshot.scan().values().stream().mapToInt(Integer::intValue).sum();
+                            scans.incrementAndGet();
+                            if (total != accounts * initialBalance) {
+                                inconsistentScans.incrementAndGet();
+                            }
+                        }
+                    }
+                }, "Reader-" + r));
+            }
+
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            System.out.println("Snapshot scans: " + scans.get() + ", inconsistent: " + inconsistentScans.get());
+            System.out.println("Write conflicts (retried): " + store.writeConflicts());
+            System.out.println("Versions reclaimed: " + store.versionsReclaimed());
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package multithreading.semaphore;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limiter whose number of permits ADAPTS to the downstream, instead of a hard-coded new Semaphore(3).
+ *
+ * The "right" concurrency for a downstream service is Little's law: throughput x latency. Both move all the time,
+ * so any fixed number is either too low (wasted capacity) or too high (requests pile up in the downstream's
+ * queues and everybody's latency explodes). The limiter therefore measures every call:
+ *
+ * 1. acquire()/tryAcquire() hand out a Permit while inFlight < limit - same semantics as Semaphore.
+ *
+ * 2. permit.release() reports the round-trip time (RTT) of the call, permit.releaseDropped() reports a
+ *    timeout/rejection from the downstream.
+ *
+ * 3. A LimitAlgorithm turns every sample into a new limit:
+ *    AIMD     → +1 while calls succeed fast, x0.9 on a drop or a too slow call (like TCP congestion control).
+ *    Gradient → compares the recent RTT with the best (no-load) RTT seen lately. Latency going up means
+ *               requests are queueing downstream → shrink the limit; flat latency → grow it by a small
+ *               queue allowance.
+ *
+ * Lowering the limit never revokes permits: calls in flight finish, new ones wait until inFlight < limit.
+ */
+public class AdaptiveLimiter {
+
+    /**
+     * Turns samples into a limit. Called with the limiter's lock held, so implementations needn't be thread safe.
+     */
+    public interface LimitAlgorithm {
+        int initialLimit();
+
+        int onSample(long rttNanos, int inFlight, boolean dropped);
+    }
+
+    private final LimitAlgorithm algorithm;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitAvailable = lock.newCondition();
+
+    // Guarded by lock
+    private int limit;
+    private int inFlight;
+    private int waiting;
+
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    public AdaptiveLimiter(LimitAlgorithm algorithm) {
+        this.algorithm = algorithm;
+        this.limit = algorithm.initialLimit();
+    }
+
+    public final class Permit {
+        private final long startNanos = System.nanoTime();
+        private boolean released;
+
+        // The call succeeded: its round-trip time feeds the algorithm
+        public void release() {
+            complete(this, false);
+        }
+
+        // The downstream timed out or rejected the call: back off
+        public void releaseDropped() {
+            complete(this, true);
+        }
+    }
+
+    public Permit acquire() throws InterruptedException {
+        attempts.increment();
+        lock.lock();
+        try {
+            waiting++;
+            try {
+                while (inFlight >= limit) {
+                    permitAvailable.await();
+                }
+            } finally {
+                waiting--;
+            }
+            inFlight++;
+            return new Permit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return a permit, or null if the limit is reached right now (counted as a rejection)
+     */
+    public Permit tryAcquire() {
+        attempts.increment();
+        lock.lock();
+        try {
+            if (inFlight < limit) {
+                inFlight++;
+                return new Permit();
+            }
+        } finally {
+            lock.unlock();
+        }
+        rejections.increment();
+        return null;
+    }
+
+    /**
+     * @return a permit, or null if none became available within the timeout (counted as a rejection)
+     */
+    public Permit tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+        attempts.increment();
+        long remaining = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            waiting++;
+            try {
+                while (inFlight >= limit) {
+                    if (remaining <= 0) {
+                        rejections.increment();
+                        return null;
+                    }
+                    remaining = permitAvailable.awaitNanos(remaining);
+                }
+            } finally {
+                waiting--;
+            }
+            inFlight++;
+            return new Permit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void complete(Permit permit, boolean dropped) {
+        long rtt = System.nanoTime() - permit.startNanos;
+        lock.lock();
+        try {
+            if (permit.released) {
+                throw new IllegalStateException("Permit released twice");
+            }
+            permit.released = true;
+            int newLimit = Math.max(1, algorithm.onSample(rtt, inFlight, dropped));
+            inFlight--;
+            int freed = Math.max(0, newLimit - inFlight);
+            limit = newLimit;
+            if (freed == 1) {
+                permitAvailable.signal();
+            } else if (freed > 1) {
+                permitAvailable.signalAll(); // limit grew by more than one
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Rejected tryAcquire() calls / all acquisition attempts so far.
+     */
+    public double getRejectionRate() {
+        long total = attempts.sum();
+        return total == 0 ? 0.0 : (double) rejections.sum() / total;
+    }
+
+    // ---------------------------------------------------------------- algorithms
+
+    /**
+     * Additive increase / multiplicative decrease.
+     * Backs off at most once per window of `limit` samples: when the downstream slows down every call in flight
+     * comes back slow, and reacting to each of them would collapse the limit to the minimum.
+     */
+    public static class AimdLimit implements LimitAlgorithm {
+        private final int initialLimit;
+        private final int minLimit;
+        private final int maxLimit;
+        private final double backoffRatio;
+        private final long timeoutNanos;
+        private int limit;
+        private int samplesSinceBackoff;
+
+        public AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long timeout, TimeUnit unit) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.backoffRatio = backoffRatio;
+            this.timeoutNanos = unit.toNanos(timeout);
+            this.limit = initialLimit;
+        }
+
+        @Override
+        public int initialLimit() {
+            return initialLimit;
+        }
+
+        @Override
+        public int onSample(long rttNanos, int inFlight, boolean dropped) {
+            samplesSinceBackoff++;
+            if (dropped || rttNanos > timeoutNanos) {
+                if (samplesSinceBackoff >= limit) {
+                    limit = Math.max(minLimit, (int) (limit * backoffRatio));
+                    samplesSinceBackoff = 0;
+                }
+            } else if (inFlight * 2 >= limit) {
+                // Only grow when the limit is actually being used, not while traffic is light
+                limit = Math.min(maxLimit, limit + 1);
+            }
+            return limit;
+        }
+    }
+
+    /**
+     * Gradient: limit x (minRtt / recentRtt) + sqrt(limit) queue allowance, smoothed.
+     * minRtt is re-probed every MIN_RTT_WINDOW samples so a downstream that got slower for good is accepted.
+     */
+    public static class GradientLimit implements LimitAlgorithm {
+        private final int initialLimit;
+        private final int minLimit;
+        private final int maxLimit;
+        private final double smoothing;
+        private static final int MIN_RTT_WINDOW = 500;
+
+        private double estimatedLimit;
+        private long minRtt = Long.MAX_VALUE;   // "RTT without queueing"
+        private double recentRtt;               // moving average = "RTT now"
+        private int samples;
+
+        public GradientLimit(int initialLimit, int minLimit, int maxLimit) {
+            this(initialLimit, minLimit, maxLimit, 0.2);
+        }
+
+        public GradientLimit(int initialLimit, int minLimit, int maxLimit, double smoothing) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.smoothing = smoothing;
+            this.estimatedLimit = initialLimit;
+        }
+
+        @Override
+        public int initialLimit() {
+            return initialLimit;
+        }
+
+        @Override
+        public int onSample(long rttNanos, int inFlight, boolean dropped) {
+            if (++samples % MIN_RTT_WINDOW == 0) {
+                minRtt = Long.MAX_VALUE;
+            }
+            minRtt = Math.min(minRtt, rttNanos);
+            recentRtt = recentRtt == 0 ? rttNanos : recentRtt * 0.9 + rttNanos * 0.1;
+
+            if (!dropped && inFlight < estimatedLimit / 2) {
+                return (int) estimatedLimit; // app limited, latency tells us nothing about the downstream
+            }
+
+            double gradient = Math.max(0.5, Math.min(1.0, minRtt / recentRtt));
+            if (dropped) {
+                gradient = 0.5;
+            }
+            double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+            estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+            return (int) estimatedLimit;
+        }
+    }
+}
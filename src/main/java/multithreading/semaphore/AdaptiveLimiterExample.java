@@ -0,0 +1,114 @@
+package multithreading.semaphore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class AdaptiveLimiterExample {
+
+    /**
+     * Fake downstream service: it serves `capacity` calls in parallel at BASE_LATENCY_MS, anything beyond that
+     * queues, so latency grows with the overload. Calls slower than TIMEOUT_MS count as dropped.
+     * The capacity changes while the demo runs (think: the downstream scaled in, then out again).
+     */
+    static class SimulatedDownstream {
+        static final long BASE_LATENCY_MS = 20;
+        static final long TIMEOUT_MS = 200;
+
+        private final AtomicInteger active = new AtomicInteger();
+        private volatile int capacity;
+
+        SimulatedDownstream(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        // @return false if the call timed out
+        boolean call() throws InterruptedException {
+            int concurrent = active.incrementAndGet();
+            try {
+                double overload = Math.max(1.0, (double) concurrent / capacity);
+                long latency = (long) (BASE_LATENCY_MS * overload) + ThreadLocalRandom.current().nextLong(5);
+                Thread.sleep(Math.min(latency, TIMEOUT_MS));
+                return latency < TIMEOUT_MS;
+            } finally {
+                active.decrementAndGet();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        // AIMD backs off when a call takes longer than twice the unloaded latency
+        long latencyTarget = SimulatedDownstream.BASE_LATENCY_MS * 2;
+        run("AIMD", new AdaptiveLimiter(new AdaptiveLimiter.AimdLimit(3, 1, 100, 0.9, latencyTarget, TimeUnit.MILLISECONDS)));
+        run("Gradient", new AdaptiveLimiter(new AdaptiveLimiter.GradientLimit(3, 1, 100)));
+    }
+
+    private static void run(String name, AdaptiveLimiter limiter) throws InterruptedException {
+        System.out.println("===== " + name + " =====");
+        SimulatedDownstream downstream = new SimulatedDownstream(10);
+        LongAdder completed = new LongAdder();
+        LongAdder dropped = new LongAdder();
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(6);
+
+        // 40 callers, far more than the downstream can take
+        List<Thread> callers = new ArrayList<>();
+        for (int i = 1; i <= 40; i++) {
+            Thread caller = new Thread(() -> {
+                while (System.nanoTime() < end) {
+                    AdaptiveLimiter.Permit permit;
+                    try {
+                        permit = limiter.tryAcquire(50, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (permit == null) {
+                        continue; // rejected - a real caller would fail fast / fall back here
+                    }
+                    boolean succeeded = false;
+                    try {
+                        succeeded = downstream.call();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } finally {
+                        // Always give the permit back, or the limiter counts this call as in flight forever
+                        if (succeeded) {
+                            completed.increment();
+                            permit.release();
+                        } else {
+                            dropped.increment();
+                            permit.releaseDropped();
+                        }
+                    }
+                }
+            }, "Caller-" + i);
+            callers.add(caller);
+            caller.start();
+        }
+
+        // Every 500ms print the limit; change the downstream capacity every 2s: 10 → 3 → 20
+        int[] capacities = {10, 3, 20};
+        for (int tick = 0; tick < 12; tick++) {
+            if (tick % 4 == 0) {
+                downstream.setCapacity(capacities[tick / 4]);
+                System.out.println("-- downstream capacity is now " + capacities[tick / 4]);
+            }
+            Thread.sleep(500);
+            System.out.printf("limit=%3d inFlight=%3d waiting=%3d completed=%,6d dropped=%,5d rejectionRate=%5.1f%%%n",
+                    limiter.getLimit(), limiter.getInFlight(), limiter.getWaiting(),
+                    completed.sum(), dropped.sum(), limiter.getRejectionRate() * 100);
+        }
+
+        for (Thread caller : callers) {
+            caller.join();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package multithreading.semaphore;
+
+import multithreading.metrics.MetricsRegistry;
+import multithreading.metrics.MetricsSource;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Non-blocking semaphore: acquireAsync() returns a CompletableFuture instead of parking the calling thread.
+ *
+ * With java.util.concurrent.Semaphore every waiter IS a thread - SemaphoreExample ties up 10 threads to share
+ * 3 permits. Here a waiter is just a small object in a queue, so thousands of logical waiters cost no threads:
+ * the future completes (on the releasing thread) once its permits are available, and the work continues
+ * in thenAccept()/thenCompose().
+ *
+ * ✅ Order in which waiters are served:
+ * FIFO     → strictly by arrival. A big request at the head holds back smaller ones behind it, so it can't
+ *            be starved by a stream of small requests.
+ * PRIORITY → by the weight passed to acquireAsync(permits, weight) (higher first), FIFO among equal weights.
+ *
+ * ✅ Timeouts and cancellation return permits correctly:
+ * A waiter whose future times out (acquireAsync(n, timeout, unit)) or is cancelled is removed from the queue
+ * and never gets permits. If it loses the race - permits were granted just as it timed out - the lease it
+ * can no longer receive is released straight back.
+ *
+ * Futures are always completed OUTSIDE the internal lock, so callbacks never run while holding it.
+ */
+public class AsyncSemaphore implements MetricsSource {
+
+    public enum Ordering {
+        FIFO, PRIORITY
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Queue<Waiter> waiters;
+    private final AtomicLong sequence = new AtomicLong();
+    private final int capacity;
+    private int available; // guarded by lock
+
+    private static final class Waiter {
+        final int permits;
+        final int weight;
+        final long sequence;
+        final CompletableFuture<Lease> future = new CompletableFuture<>();
+
+        Waiter(int permits, int weight, long sequence) {
+            this.permits = permits;
+            this.weight = weight;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * Permits held by one successful acquisition. release()/close() is idempotent.
+     */
+    public final class Lease implements AutoCloseable {
+        private final int permits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Lease(int permits) {
+            this.permits = permits;
+        }
+
+        public int permits() {
+            return permits;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                AsyncSemaphore.this.release(permits);
+            }
+        }
+
+        @Override
+        public void close() {
+            release();
+        }
+    }
+
+    public AsyncSemaphore(int permits, Ordering ordering) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive: " + permits);
+        }
+        this.capacity = permits;
+        this.available = permits;
+        this.waiters = ordering == Ordering.FIFO
+                ? new ArrayDeque<>()
+                : new PriorityQueue<>(Comparator.<Waiter>comparingInt(w -> -w.weight).thenComparingLong(w -> w.sequence));
+    }
+
+    public CompletableFuture<Lease> acquireAsync(int permits) {
+        return acquireAsync(permits, 0);
+    }
+
+    /**
+     * @throws IllegalArgumentException unless 0 < permits <= capacity() - a bigger request could never be
+     *                                  granted, and in FIFO order it would block every waiter behind it
+     */
+    public CompletableFuture<Lease> acquireAsync(int permits, int weight) {
+        if (permits <= 0 || permits > capacity) {
+            throw new IllegalArgumentException("permits must be 1.." + capacity + ": " + permits);
+        }
+        Waiter waiter = new Waiter(permits, weight, sequence.incrementAndGet());
+        lock.lock();
+        try {
+            // Fast path only if nobody is queued - otherwise we would overtake the waiters
+            if (waiters.isEmpty() && available >= permits) {
+                available -= permits;
+                return CompletableFuture.completedFuture(new Lease(permits));
+            }
+            waiters.add(waiter);
+        } finally {
+            lock.unlock();
+        }
+        // Timed out / cancelled while queued → leave the queue (and let the ones behind us try)
+        waiter.future.whenComplete((lease, failure) -> {
+            if (failure != null) {
+                abandon(waiter);
+            }
+        });
+        return waiter.future;
+    }
+
+    /**
+     * Like acquireAsync(permits), but the future fails with a TimeoutException if the permits aren't granted
+     * within the timeout.
+     */
+    public CompletableFuture<Lease> acquireAsync(int permits, long timeout, TimeUnit unit) {
+        return acquireAsync(permits).orTimeout(timeout, unit);
+    }
+
+    private void release(int permits) {
+        List<Waiter> granted;
+        lock.lock();
+        try {
+            available += permits;
+            granted = grantLocked();
+        } finally {
+            lock.unlock();
+        }
+        complete(granted);
+    }
+
+    private void abandon(Waiter waiter) {
+        List<Waiter> granted;
+        lock.lock();
+        try {
+            if (!waiters.remove(waiter)) {
+                return; // already granted, the lease is handed back in complete()
+            }
+            granted = grantLocked(); // we may have been the head that held the others back
+        } finally {
+            lock.unlock();
+        }
+        complete(granted);
+    }
+
+    // Pops every waiter that can be served now, in queue order (stops at the first one that doesn't fit)
+    private List<Waiter> grantLocked() {
+        List<Waiter> granted = new ArrayList<>();
+        Waiter head;
+        while ((head = waiters.peek()) != null && head.permits <= available) {
+            waiters.poll();
+            available -= head.permits;
+            granted.add(head);
+        }
+        return granted;
+    }
+
+    private void complete(List<Waiter> granted) {
+        for (Waiter waiter : granted) {
+            Lease lease = new Lease(waiter.permits);
+            if (!waiter.future.complete(lease)) {
+                lease.release(); // timed out / cancelled at the same moment → give the permits back
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MetricsRegistry registry, String... labels) {
+        registry.gauge("async_semaphore_available_permits", "Permits not leased", this::availablePermits, labels);
+        registry.gauge("async_semaphore_queue_length", "Waiters queued for permits", this::queueLength, labels);
+    }
+
+    /**
+     * Total number of permits, leased or not.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    public int availablePermits() {
+        lock.lock();
+        try {
+            return available;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int queueLength() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package multithreading.semaphore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AsyncSemaphoreExample {
+
+    /**
+     * 10,000 logical tasks share 3 permits - the same shape as SemaphoreExample, but nobody parks a thread:
+     * waiting tasks are futures in the semaphore's queue, and the "critical section" is a delayed callback.
+     *
+     * Half of the tasks give up after 200ms (acquireAsync with a timeout); their permits must never leak.
+     */
+    public static void main(String[] args) {
+        AsyncSemaphore semaphore = new AsyncSemaphore(3, AsyncSemaphore.Ordering.FIFO);
+        Executor criticalSectionTime = CompletableFuture.delayedExecutor(1, TimeUnit.MILLISECONDS);
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger timedOut = new AtomicInteger();
+
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            CompletableFuture<AsyncSemaphore.Lease> permit = i % 2 == 0
+                    ? semaphore.acquireAsync(1)
+                    : semaphore.acquireAsync(1, 200, TimeUnit.MILLISECONDS);
+
+            tasks.add(permit
+                    .thenCompose(lease -> {
+                        maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                        // Simulate critical section (1ms), then give the permit back
+                        return CompletableFuture.runAsync(() -> {
+                            concurrent.decrementAndGet();
+                            completed.incrementAndGet();
+                            lease.release();
+                        }, criticalSectionTime);
+                    })
+                    .exceptionally(failure -> {
+                        if (failure.getCause() instanceof TimeoutException || failure instanceof TimeoutException) {
+                            timedOut.incrementAndGet();
+                        }
+                        return null;
+                    }));
+        }
+
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).join();
+
+        System.out.println("Completed: " + completed.get() + ", timed out: " + timedOut.get());
+        System.out.println("Max concurrent holders: " + maxConcurrent.get() + " (permits: 3)");
+        System.out.println("Permits available at the end: " + semaphore.availablePermits() + " (no leaks if 3)");
+        System.out.println("Live threads: " + Thread.activeCount());
+    }
+}
@@ -0,0 +1,158 @@
+package multithreading.semaphore;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free rate limiter: limits how OFTEN callers run, where a Semaphore limits how MANY run at once.
+ *
+ * ✅ Token bucket without a refill thread:
+ * A token bucket of capacity B refilled at R tokens/s is usually drawn as a counter plus a thread adding
+ * tokens. Instead we store ONE number - the "theoretical arrival time" (TAT) of the next request, in nanos
+ * (the GCRA formulation used by ATM networks). Each permit moves TAT forward by one emission interval
+ * T = 1s / R, and the bucket is "full" when TAT lies in the past:
+ *
+ *     newTat = max(tat, now) + n * T
+ *     allowed if newTat - now <= B * T      (i.e. the bucket still holds n tokens)
+ *
+ * The refill is computed lazily from the clock at every call, to the nanosecond.
+ *
+ * ✅ Lock-free, one atomic word:
+ * tryAcquire() is a read, some arithmetic and a single CAS on an AtomicLong. A rejected call doesn't even
+ * write - it just reads the state - so a flood of rejected callers doesn't fight over the cache line.
+ *
+ * ✅ Token bucket vs leaky bucket:
+ * tokenBucket(rate, burst) → up to `burst` permits can be taken at once after an idle period.
+ * leakyBucket(rate)        → burst of 1: permits are spaced exactly T apart, output is perfectly smooth.
+ *
+ * acquire(n) never fails: it RESERVES its permits (TAT may move into the future, i.e. the bucket goes into
+ * debt) and then parks until the reservation is due - a few µs of spinning at the end make the wake-up accurate.
+ */
+public class RateLimiter {
+
+    private static final long SPIN_THRESHOLD_NANOS = 50_000; // park until 50µs before the deadline, then spin
+
+    private final long intervalNanos;   // T: nanos per permit
+    private final long burstNanos;      // B * T
+    private final int burst;
+    private final AtomicLong theoreticalArrivalTime;
+
+    private RateLimiter(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond and burst must be positive");
+        }
+        this.intervalNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burst = burst;
+        this.burstNanos = intervalNanos * burst;
+        this.theoreticalArrivalTime = new AtomicLong(System.nanoTime()); // starts full
+    }
+
+    public static RateLimiter tokenBucket(double permitsPerSecond, int burst) {
+        return new RateLimiter(permitsPerSecond, burst);
+    }
+
+    public static RateLimiter leakyBucket(double permitsPerSecond) {
+        return new RateLimiter(permitsPerSecond, 1);
+    }
+
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    /**
+     * Takes n permits if they are available right now, never waits.
+     */
+    public boolean tryAcquire(int n) {
+        checkPermits(n);
+        if (n > burst) {
+            return false; // can never fit into the bucket at once
+        }
+        long cost = n * intervalNanos;
+        while (true) {
+            long now = System.nanoTime();
+            long tat = theoreticalArrivalTime.get();
+            long newTat = Math.max(tat, now) + cost;
+            if (newTat - now > burstNanos) {
+                return false; // not enough tokens - rejected without writing to the shared word
+            }
+            if (theoreticalArrivalTime.compareAndSet(tat, newTat)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Takes n permits if they become available within the timeout; waits for them if so.
+     */
+    public boolean tryAcquire(int n, long timeout, TimeUnit unit) throws InterruptedException {
+        checkPermits(n);
+        long maxWait = unit.toNanos(timeout);
+        long cost = n * intervalNanos;
+        long dueAt;
+        while (true) {
+            long now = System.nanoTime();
+            long tat = theoreticalArrivalTime.get();
+            long newTat = Math.max(tat, now) + cost;
+            dueAt = newTat - burstNanos;
+            if (dueAt - now > maxWait) {
+                return false;
+            }
+            if (theoreticalArrivalTime.compareAndSet(tat, newTat)) {
+                break;
+            }
+        }
+        waitUntil(dueAt);
+        return true;
+    }
+
+    public void acquire() throws InterruptedException {
+        acquire(1);
+    }
+
+    /**
+     * Reserves n permits and waits until they are due. Returns the nanos spent waiting.
+     */
+    public long acquire(int n) throws InterruptedException {
+        checkPermits(n);
+        long start = System.nanoTime();
+        long dueAt = theoreticalArrivalTime.accumulateAndGet(n * intervalNanos,
+                (tat, cost) -> Math.max(tat, System.nanoTime()) + cost) - burstNanos;
+        waitUntil(dueAt);
+        return System.nanoTime() - start;
+    }
+
+    private static void waitUntil(long dueAt) throws InterruptedException {
+        long remaining;
+        while ((remaining = dueAt - System.nanoTime()) > 0) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException(); // note: the reserved permits are not given back
+            }
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS); // OS timers overshoot, wake up early
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private static void checkPermits(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("permits must be positive: " + n);
+        }
+    }
+
+    public double getRate() {
+        return (double) TimeUnit.SECONDS.toNanos(1) / intervalNanos;
+    }
+
+    /**
+     * Tokens currently in the bucket (0 while it is in debt).
+     */
+    public double availablePermits() {
+        long now = System.nanoTime();
+        long tat = theoreticalArrivalTime.get();
+        long free = burstNanos - Math.max(0, tat - now);
+        return Math.max(0, (double) free / intervalNanos);
+    }
+}
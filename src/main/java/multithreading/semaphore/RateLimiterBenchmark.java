@@ -0,0 +1,64 @@
+package multithreading.semaphore;
+
+import multithreading.benchmark.BenchmarkHarness;
+
+/**
+ * 1. tryAcquire() throughput from 1 to 2x cores threads, once with a limiter that grants almost every call
+ *    (CAS path) and once with one that rejects almost every call (read-only path).
+ *
+ * 2. acquire() accuracy: one thread acquiring back to back at a given rate - achieved vs configured rate.
+ *
+ * Usage: RateLimiterBenchmark [millisPerRun]
+ */
+public class RateLimiterBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        long millisPerRun = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+
+        System.out.printf("%-20s %8s %18s %10s%n", "tryAcquire", "threads", "calls/sec", "granted");
+        int maxThreads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        for (int threads : BenchmarkHarness.powersOfTwo(maxThreads)) {
+            // Interval of 1ns: the bucket practically never runs dry → every call CASes
+            throughput("mostly granted", RateLimiter.tokenBucket(1e9, 1_000_000), threads, millisPerRun);
+            throughput("mostly rejected", RateLimiter.tokenBucket(1_000, 10), threads, millisPerRun);
+        }
+
+        System.out.println();
+        System.out.printf("%-20s %14s %14s %10s%n", "acquire()", "configured/s", "achieved/s", "error");
+        for (double rate : new double[]{100, 10_000, 100_000}) {
+            accuracy("token bucket", RateLimiter.tokenBucket(rate, 1), rate, millisPerRun);
+            accuracy("leaky bucket", RateLimiter.leakyBucket(rate), rate, millisPerRun);
+        }
+    }
+
+    private static void throughput(String name, RateLimiter limiter, int threads, long millis) throws InterruptedException {
+        long[] granted = new long[threads];
+        BenchmarkHarness.Result result = BenchmarkHarness.run(threads, millis, id -> () -> {
+            long localGranted = 0;
+            for (int i = 0; i < 1024; i++) {
+                if (limiter.tryAcquire()) {
+                    localGranted++;
+                }
+            }
+            granted[id] += localGranted;
+            return 1024;
+        });
+        long totalGranted = 0;
+        for (long g : granted) {
+            totalGranted += g;
+        }
+        System.out.printf("%-20s %8d %,18d %9.1f%%%n", name, threads, result.perSecond(),
+                100.0 * totalGranted / Math.max(1, result.operations()));
+    }
+
+    private static void accuracy(String name, RateLimiter limiter, double rate, long millis) throws InterruptedException {
+        long permits = Math.max(10, (long) (rate * millis / 1000));
+        limiter.acquire(); // drain the initial burst so the run is paced from the first permit
+        long start = System.nanoTime();
+        for (long i = 0; i < permits; i++) {
+            limiter.acquire();
+        }
+        double achieved = permits / ((System.nanoTime() - start) / 1e9);
+        System.out.printf("%-20s %,14.0f %,14.0f %9.2f%%%n", name, rate, achieved, 100.0 * (achieved - rate) / rate);
+    }
+}
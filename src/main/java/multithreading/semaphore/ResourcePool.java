@@ -0,0 +1,369 @@
+package multithreading.semaphore;
+
+import multithreading.metrics.MetricsRegistry;
+import multithreading.metrics.MetricsSource;
+import multithreading.metrics.Timer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Generic object pool (connections, buffers, parsers ...) = a Semaphore for the COUNT + a concurrent bag for
+ * the OBJECTS.
+ *
+ * SemaphoreExample only limits how many threads use "the resource"; a pool also has to hand out a real object,
+ * and do it fast when many threads borrow and return at a high rate.
+ *
+ * ✅ Borrowing, cheapest first:
+ * 0. Take a permit from the Semaphore (max size). Only this step can WAIT - up to the borrow timeout.
+ * 1. Thread-local list: the objects this thread returned recently. Claiming one is a CAS on the entry's state
+ *    that nobody else is likely to touch, and the object is probably still warm in this core's cache.
+ * 2. Shared list: scan all entries and STEAL any idle one (same CAS).
+ * 3. Still nothing and the pool isn't full → create a new object.
+ *
+ * Holding a permit guarantees step 1-3 find or create an object: at most maxSize - 1 other borrowers hold one.
+ *
+ * ✅ Housekeeping (background daemon thread):
+ * - idle eviction: objects idle longer than idleTimeout are destroyed, down to minIdle;
+ * - leak detection: objects borrowed for longer than leakThreshold are reported once, with the stack trace of
+ *   the borrow, so the code that forgot close() can be found.
+ *
+ * ✅ Validation: an object that was idle for longer than validationAfter is checked with the validator before
+ * it is handed out; invalid objects are destroyed and the borrow goes on with the next one.
+ *
+ * ✅ Metrics (bindTo): the counters above as function counters, size/idle/waiting as gauges - read at scrape
+ * time only - plus the time borrow() waits for a permit, measured only once the pool is bound (and the clock is
+ * only read when the permit isn't available at once).
+ */
+public class ResourcePool<T> implements AutoCloseable, MetricsSource {
+
+    private static final int NOT_IN_USE = 0;
+    private static final int IN_USE = 1;
+    private static final int REMOVED = 2;
+
+    private static final int THREAD_LOCAL_CAPACITY = 16;
+
+    private final Supplier<T> factory;
+    private final Predicate<T> validator;
+    private final Consumer<T> destroyer;
+    private final int maxSize;
+    private final int minIdle;
+    private final long idleTimeoutNanos;
+    private final long validationAfterNanos;
+    private final long leakThresholdNanos;
+
+    private final Semaphore permits;
+    private final CopyOnWriteArrayList<Entry<T>> shared = new CopyOnWriteArrayList<>();
+    private final AtomicInteger size = new AtomicInteger(); // entries created and not destroyed
+    private final ThreadLocal<List<Entry<T>>> recentlyReturned = ThreadLocal.withInitial(() -> new ArrayList<>(THREAD_LOCAL_CAPACITY));
+    private final ScheduledExecutorService housekeeper;
+
+    private final LongAdder threadLocalHits = new LongAdder();
+    private final LongAdder steals = new LongAdder();
+    private final LongAdder creations = new LongAdder();
+    private final LongAdder leaksReported = new LongAdder();
+    private volatile Timer borrowWait; // null until bindTo()
+
+    private static final class Entry<T> {
+        final T object;
+        final AtomicInteger state = new AtomicInteger(IN_USE); // created for a borrower
+        volatile long lastReturnedNanos = System.nanoTime();
+        volatile long borrowedAtNanos;
+        volatile Throwable borrowSite;  // only with leak detection
+        volatile boolean leakReported;
+
+        Entry(T object) {
+            this.object = object;
+        }
+    }
+
+    /**
+     * A borrowed object; close() returns it to the pool (exactly once).
+     */
+    public final class Pooled implements AutoCloseable {
+        private final Entry<T> entry;
+        private boolean returned;
+
+        private Pooled(Entry<T> entry) {
+            this.entry = entry;
+        }
+
+        public T get() {
+            if (returned) {
+                throw new IllegalStateException("Object already returned to the pool");
+            }
+            return entry.object;
+        }
+
+        @Override
+        public void close() {
+            if (!returned) {
+                returned = true;
+                giveBack(entry);
+            }
+        }
+    }
+
+    public static <T> Builder<T> builder(Supplier<T> factory) {
+        return new Builder<>(factory);
+    }
+
+    public static final class Builder<T> {
+        private final Supplier<T> factory;
+        private Predicate<T> validator = object -> true;
+        private Consumer<T> destroyer = object -> { };
+        private int maxSize = 10;
+        private int minIdle = 0;
+        private long idleTimeoutMillis = TimeUnit.MINUTES.toMillis(10);
+        private long validationAfterMillis = 500;
+        private long leakThresholdMillis = 0; // 0 = leak detection off
+        private long housekeepingMillis = 1000;
+
+        private Builder(Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        public Builder<T> maxSize(int maxSize) {
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        public Builder<T> minIdle(int minIdle) {
+            this.minIdle = minIdle;
+            return this;
+        }
+
+        public Builder<T> validator(Predicate<T> validator) {
+            this.validator = validator;
+            return this;
+        }
+
+        public Builder<T> destroyer(Consumer<T> destroyer) {
+            this.destroyer = destroyer;
+            return this;
+        }
+
+        public Builder<T> idleTimeout(long millis) {
+            this.idleTimeoutMillis = millis;
+            return this;
+        }
+
+        public Builder<T> validationAfter(long millis) {
+            this.validationAfterMillis = millis;
+            return this;
+        }
+
+        public Builder<T> leakThreshold(long millis) {
+            this.leakThresholdMillis = millis;
+            return this;
+        }
+
+        public Builder<T> housekeepingInterval(long millis) {
+            this.housekeepingMillis = millis;
+            return this;
+        }
+
+        public ResourcePool<T> build() {
+            return new ResourcePool<>(this);
+        }
+    }
+
+    private ResourcePool(Builder<T> builder) {
+        this.factory = builder.factory;
+        this.validator = builder.validator;
+        this.destroyer = builder.destroyer;
+        this.maxSize = builder.maxSize;
+        this.minIdle = builder.minIdle;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(builder.idleTimeoutMillis);
+        this.validationAfterNanos = TimeUnit.MILLISECONDS.toNanos(builder.validationAfterMillis);
+        this.leakThresholdNanos = TimeUnit.MILLISECONDS.toNanos(builder.leakThresholdMillis);
+        this.permits = new Semaphore(maxSize, true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep, builder.housekeepingMillis, builder.housekeepingMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public Pooled borrow(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        Timer timer = borrowWait;
+        if (permits.tryAcquire()) {
+            if (timer != null) {
+                timer.record(0, TimeUnit.NANOSECONDS); // didn't wait - and didn't pay for reading the clock
+            }
+        } else {
+            long start = timer != null ? timer.start() : 0;
+            if (!permits.tryAcquire(timeout, unit)) {
+                throw new TimeoutException("No object available within " + timeout + " " + unit);
+            }
+            if (timer != null) {
+                timer.stop(start);
+            }
+        }
+        try {
+            while (true) {
+                Entry<T> entry = claimIdle();
+                if (entry == null) {
+                    entry = tryCreate();
+                }
+                if (entry == null) {
+                    Thread.onSpinWait(); // an idle entry is being returned/evicted right now, look again
+                    continue;
+                }
+                if (isStale(entry) && !validator.test(entry.object)) {
+                    destroy(entry);
+                    continue;
+                }
+                entry.borrowedAtNanos = System.nanoTime();
+                entry.leakReported = false;
+                entry.borrowSite = leakThresholdNanos > 0 ? new Throwable("Borrowed here") : null;
+                return new Pooled(entry);
+            }
+        } catch (RuntimeException | Error e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private Entry<T> claimIdle() {
+        // 1. What this thread returned recently (newest first)
+        List<Entry<T>> local = recentlyReturned.get();
+        for (int i = local.size() - 1; i >= 0; i--) {
+            Entry<T> entry = local.remove(i);
+            if (entry.state.compareAndSet(NOT_IN_USE, IN_USE)) {
+                threadLocalHits.increment();
+                return entry;
+            }
+        }
+        // 2. Steal from the shared list
+        for (Entry<T> entry : shared) {
+            if (entry.state.get() == NOT_IN_USE && entry.state.compareAndSet(NOT_IN_USE, IN_USE)) {
+                steals.increment();
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private Entry<T> tryCreate() {
+        int current;
+        do {
+            current = size.get();
+            if (current >= maxSize) {
+                return null;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+        try {
+            Entry<T> entry = new Entry<>(factory.get());
+            shared.add(entry);
+            creations.increment();
+            return entry;
+        } catch (RuntimeException | Error e) {
+            size.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private boolean isStale(Entry<T> entry) {
+        return System.nanoTime() - entry.lastReturnedNanos > validationAfterNanos;
+    }
+
+    private void giveBack(Entry<T> entry) {
+        entry.borrowSite = null;
+        entry.lastReturnedNanos = System.nanoTime();
+        entry.state.set(NOT_IN_USE); // publish before the permit lets the next borrower in
+        List<Entry<T>> local = recentlyReturned.get();
+        if (local.size() == THREAD_LOCAL_CAPACITY) {
+            local.remove(0);
+        }
+        local.add(entry);
+        permits.release();
+    }
+
+    private void destroy(Entry<T> entry) {
+        entry.state.set(REMOVED);
+        shared.remove(entry);
+        size.decrementAndGet();
+        destroyer.accept(entry.object);
+    }
+
+    void housekeep() {
+        long now = System.nanoTime();
+        int idle = idleCount();
+        for (Entry<T> entry : shared) {
+            int state = entry.state.get();
+            if (state == NOT_IN_USE && now - entry.lastReturnedNanos > idleTimeoutNanos && idle > minIdle
+                    && entry.state.compareAndSet(NOT_IN_USE, REMOVED)) {
+                shared.remove(entry);
+                size.decrementAndGet();
+                idle--;
+                destroyer.accept(entry.object);
+            } else if (state == IN_USE && leakThresholdNanos > 0 && !entry.leakReported
+                    && now - entry.borrowedAtNanos > leakThresholdNanos) {
+                Throwable borrowSite = entry.borrowSite;
+                if (borrowSite != null) {
+                    entry.leakReported = true;
+                    leaksReported.increment();
+                    System.err.println("Possible leak: " + entry.object + " borrowed "
+                            + TimeUnit.NANOSECONDS.toMillis(now - entry.borrowedAtNanos) + "ms ago and not returned");
+                    borrowSite.printStackTrace();
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public int idleCount() {
+        int idle = 0;
+        for (Entry<T> entry : shared) {
+            if (entry.state.get() == NOT_IN_USE) {
+                idle++;
+            }
+        }
+        return idle;
+    }
+
+    public String stats() {
+        return String.format("size=%d idle=%d threadLocalHits=%,d steals=%,d creations=%,d leaksReported=%d",
+                size(), idleCount(), threadLocalHits.sum(), steals.sum(), creations.sum(), leaksReported.sum());
+    }
+
+    @Override
+    public void bindTo(MetricsRegistry registry, String... labels) {
+        registry.gauge("pool_size", "Objects created and not destroyed", this::size, labels);
+        registry.gauge("pool_idle", "Objects waiting in the pool", this::idleCount, labels);
+        registry.gauge("pool_waiting_threads", "Threads waiting for a permit", permits::getQueueLength, labels);
+        registry.counter("pool_thread_local_hits_total", "Borrows served from the thread's own list", threadLocalHits::sum, labels);
+        registry.counter("pool_steals_total", "Borrows served from the shared list", steals::sum, labels);
+        registry.counter("pool_creations_total", "Objects created", creations::sum, labels);
+        registry.counter("pool_leaks_reported_total", "Objects reported as possibly leaked", leaksReported::sum, labels);
+        borrowWait = registry.timer("pool_borrow_wait_seconds", "Time borrow() waited for a permit", labels);
+    }
+
+    @Override
+    public void close() {
+        housekeeper.shutdownNow();
+        for (Entry<T> entry : shared) {
+            if (entry.state.compareAndSet(NOT_IN_USE, REMOVED)) {
+                shared.remove(entry);
+                size.decrementAndGet();
+                destroyer.accept(entry.object);
+            }
+        }
+    }
+}
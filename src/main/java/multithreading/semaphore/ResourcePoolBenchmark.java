@@ -0,0 +1,120 @@
+package multithreading.semaphore;
+
+import multithreading.benchmark.BenchmarkHarness;
+import multithreading.metrics.LogLinearHistogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Borrow/return latency of ResourcePool under contention.
+ *
+ * FakeResource costs CREATION_MILLIS to create (think: TCP + TLS handshake); after warm-up the pool is full,
+ * so the numbers show the pool's own borrow/return overhead. Every thread borrows, "uses" the object for a
+ * few hundred ns and returns it, as fast as it can. Thread counts go from 1 to 2x maxSize, so the last rows
+ * have more borrowers than objects and include waiting on the semaphore.
+ *
+ * Usage: ResourcePoolBenchmark [millisPerRun] [maxSize] [creationMillis]
+ */
+public class ResourcePoolBenchmark {
+
+    static class FakeResource {
+        private static final AtomicInteger ids = new AtomicInteger();
+        private final int id = ids.incrementAndGet();
+        private volatile boolean open = true;
+
+        FakeResource(long creationMillis) {
+            try {
+                Thread.sleep(creationMillis); // Simulate an expensive creation
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        long use() {
+            long work = id;
+            for (int i = 0; i < 100; i++) {
+                work = work * 31 + i;
+            }
+            return work;
+        }
+
+        boolean isOpen() {
+            return open;
+        }
+
+        void close() {
+            open = false;
+        }
+
+        @Override
+        public String toString() {
+            return "FakeResource-" + id;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        long millisPerRun = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        int maxSize = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        long creationMillis = args.length > 2 ? Long.parseLong(args[2]) : 20;
+
+        try (ResourcePool<FakeResource> pool = ResourcePool.builder(() -> new FakeResource(creationMillis))
+                .maxSize(maxSize)
+                .validator(FakeResource::isOpen)
+                .destroyer(FakeResource::close)
+                .build()) {
+
+            System.out.printf("pool maxSize=%d, creation cost=%dms%n", maxSize, creationMillis);
+            System.out.printf("%8s %14s %12s %12s %12s %12s%n", "threads", "borrows/sec", "p50", "p99", "p99.9", "max");
+            for (int threads = 1; threads <= maxSize * 2; threads *= 2) {
+                run(pool, threads, millisPerRun / 5); // warm-up (also fills the pool), not printed
+                Result result = run(pool, threads, millisPerRun);
+                LogLinearHistogram.Snapshot latency = result.latency;
+                System.out.printf("%8d %,14d %,10dns %,10dns %,10dns %,10dns%n", threads, result.borrowsPerSec,
+                        latency.percentile(50), latency.percentile(99), latency.percentile(99.9), latency.max());
+            }
+            System.out.println(pool.stats());
+        }
+    }
+
+    private static final class Result {
+        final long borrowsPerSec;
+        final LogLinearHistogram.Snapshot latency;
+
+        Result(long borrowsPerSec, LogLinearHistogram.Snapshot latency) {
+            this.borrowsPerSec = borrowsPerSec;
+            this.latency = latency;
+        }
+    }
+
+    /**
+     * Every borrow is counted and recorded (a per-thread histogram, merged at the end) - nothing is sampled or
+     * capped, so throughput and percentiles describe the same operations.
+     */
+    private static Result run(ResourcePool<FakeResource> pool, int threads, long millis) throws InterruptedException {
+        LogLinearHistogram[] latencies = new LogLinearHistogram[threads];
+        for (int t = 0; t < threads; t++) {
+            latencies[t] = LogLinearHistogram.forLatencies(10, TimeUnit.SECONDS, 2);
+        }
+
+        // A borrow that times out (1s) fails the run
+        long borrowsPerSec = BenchmarkHarness.run(threads, millis, id -> {
+            LogLinearHistogram latency = latencies[id];
+            return () -> {
+                long start = System.nanoTime();
+                try (ResourcePool<FakeResource>.Pooled pooled = pool.borrow(1, TimeUnit.SECONDS)) {
+                    long borrowed = System.nanoTime();
+                    BenchmarkHarness.consume(pooled.get().use());
+                    latency.record(borrowed - start); // borrow latency
+                }
+                return 1;
+            };
+        }).perSecond();
+
+        LogLinearHistogram.Snapshot merged = latencies[0].snapshot();
+        for (int t = 1; t < threads; t++) {
+            merged = merged.merge(latencies[t].snapshot());
+        }
+        return new Result(borrowsPerSec, merged);
+    }
+}
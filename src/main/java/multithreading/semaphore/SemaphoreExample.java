@@ -58,17 +58,24 @@ public class SemaphoreExample {
                 try {
                     System.out.println("Thread " + threadId + " is trying to acquire permit...");
 
-                    if (semaphore.tryAcquire(2, TimeUnit.SECONDS)) {
-                        System.out.println("Thread " + threadId + " acquired permit!");
-                    } else {
+                    if (!semaphore.tryAcquire(2, TimeUnit.SECONDS)) {
+                        /**
+                         * No permit was acquired, so there is nothing to release.
+                         * Calling release() here would ADD a permit the semaphore never handed out → after a few
+                         * timeouts more than 3 threads could be inside the critical section.
+                         */
                         System.out.println("Thread " + threadId + " Timed out!");
+                        return;
                     }
+                    System.out.println("Thread " + threadId + " acquired permit!");
 
-                    // Simulate critical section
-                    Thread.sleep(5000);
-
-                    System.out.println("Thread " + threadId + " releasing permit.");
-                    semaphore.release();
+                    try {
+                        // Simulate critical section
+                        Thread.sleep(5000);
+                    } finally {
+                        System.out.println("Thread " + threadId + " releasing permit.");
+                        semaphore.release();
+                    }
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                 }
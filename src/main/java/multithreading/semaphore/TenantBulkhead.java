@@ -0,0 +1,286 @@
+package multithreading.semaphore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-tenant bulkhead: one process, many tenants, and no noisy tenant can take every permit.
+ *
+ * With a single Semaphore (SemaphoreExample) permits are first come, first served - one tenant sending a burst
+ * takes all of them and everybody else waits. Here there is ONE fixed capacity, and it is shared out like this:
+ *
+ * 1. RESERVED: every tenant is carved a slice (reservedPerTenant) out of the capacity when it is first seen.
+ *    Its first reservedPerTenant permits come from that slice and ALWAYS succeed - they never touch the
+ *    shared pool, so no other tenant can use them up. There is room for capacity / reservedPerTenant tenants
+ *    (maxTenants()); tenant() rejects any further one with an IllegalStateException rather than silently
+ *    admitting it without a slice. So this is for a known, bounded set of tenants.
+ *
+ * 2. BORROWED: above its slice a tenant may use up to maxBorrowPerTenant more permits from the shared pool:
+ *    the unreserved capacity (capacity - reservedTotal) plus the slices of other tenants that are idle right now.
+ *
+ * 3. RECLAIMED: a lent slice stays its owner's - the owner still gets it at once. Until the borrowers release,
+ *    the bulkhead is then over capacity by those reclaimed permits, and nobody can borrow. maxBorrowPerTenant
+ *    bounds how much can be lent; when the borrowers' caps together stay within capacity - reservedTotal, no
+ *    slice is ever lent and the capacity is never exceeded.
+ *
+ * ✅ O(1) and lock-free:
+ * Within the slice, tryAcquire() is one CAS on the tenant's own counter plus one increment of the slice
+ * counter - it can't fail. A borrow adds one CAS loop on the borrowed counter. No lock, no iteration over
+ * tenants, so the cost is the same with 10 or 10,000 tenants.
+ *
+ * Callers must release() exactly once for every successful tryAcquire(); the bulkhead rejects instead of
+ * queueing (combine it with a retry/backoff or an AsyncSemaphore if callers should wait).
+ */
+public class TenantBulkhead {
+
+    private final int capacity;
+    private final int reservedPerTenant;
+    private final int maxBorrowPerTenant;
+    private final int maxTenants;
+    private final AtomicInteger sliceInUse = new AtomicInteger();    // permits used inside their owner's slice
+    private final AtomicInteger borrowed = new AtomicInteger();      // permits used above a tenant's slice
+    private final AtomicInteger reservedTotal = new AtomicInteger(); // sum of the slices carved out so far
+    private final ConcurrentHashMap<String, Tenant> tenants = new ConcurrentHashMap<>();
+
+    /**
+     * Per-tenant state. inFlight counts all its permits; the ones above reserved are borrowed.
+     */
+    public static final class Tenant {
+        private final String id;
+        private final int reserved;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final LongAdder acquired = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        private Tenant(String id, int reserved) {
+            this.id = id;
+            this.reserved = reserved;
+        }
+
+        public String id() {
+            return id;
+        }
+
+        public int reserved() {
+            return reserved;
+        }
+
+        public int inFlight() {
+            return inFlight.get();
+        }
+
+        public long acquired() {
+            return acquired.sum();
+        }
+
+        public long rejected() {
+            return rejected.sum();
+        }
+    }
+
+    public TenantBulkhead(int capacity, int reservedPerTenant, int maxBorrowPerTenant) {
+        if (capacity <= 0 || reservedPerTenant < 0 || maxBorrowPerTenant < 0) {
+            throw new IllegalArgumentException("capacity must be positive, reservedPerTenant and maxBorrowPerTenant "
+                    + "not negative: " + capacity + ", " + reservedPerTenant + ", " + maxBorrowPerTenant);
+        }
+        this.capacity = capacity;
+        this.reservedPerTenant = reservedPerTenant;
+        this.maxBorrowPerTenant = maxBorrowPerTenant;
+        this.maxTenants = reservedPerTenant == 0 ? Integer.MAX_VALUE : capacity / reservedPerTenant;
+    }
+
+    /**
+     * The tenant's handle, carving its slice on first use.
+     *
+     * @throws IllegalStateException if maxTenants() tenants already have a slice
+     */
+    public Tenant tenant(String tenantId) {
+        Tenant tenant = tenants.get(tenantId);
+        return tenant != null ? tenant : tenants.computeIfAbsent(tenantId, id -> new Tenant(id, carveSlice(id)));
+    }
+
+    private int carveSlice(String tenantId) {
+        while (true) {
+            int current = reservedTotal.get();
+            if (current + reservedPerTenant > capacity) {
+                throw new IllegalStateException("No slice left for tenant " + tenantId + ": " + maxTenants
+                        + " tenants already reserve " + reservedPerTenant + " of " + capacity + " permits each");
+            }
+            if (reservedTotal.compareAndSet(current, current + reservedPerTenant)) {
+                return reservedPerTenant;
+            }
+        }
+    }
+
+    public boolean tryAcquire(String tenantId) {
+        return tryAcquire(tenant(tenantId));
+    }
+
+    /**
+     * Hot path for callers that cache the Tenant handle (skips the map lookup).
+     */
+    public boolean tryAcquire(Tenant tenant) {
+        AtomicInteger inFlight = tenant.inFlight;
+        while (true) {
+            int current = inFlight.get();
+            if (current < tenant.reserved) {
+                // Our own slice: guaranteed, whatever the others borrowed
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    sliceInUse.incrementAndGet();
+                    tenant.acquired.increment();
+                    return true;
+                }
+                continue;
+            }
+            if (current >= tenant.reserved + maxBorrowPerTenant || !borrow()) {
+                tenant.rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                tenant.acquired.increment();
+                return true;
+            }
+            borrowed.decrementAndGet(); // lost the race on our own counter, retry from scratch
+        }
+    }
+
+    public void release(String tenantId) {
+        Tenant tenant = tenants.get(tenantId);
+        if (tenant == null) {
+            throw new IllegalStateException("release() for unknown tenant " + tenantId);
+        }
+        release(tenant);
+    }
+
+    public void release(Tenant tenant) {
+        int before = tenant.inFlight.getAndDecrement();
+        if (before <= 0) {
+            tenant.inFlight.incrementAndGet();
+            throw new IllegalStateException("release() without acquire() for tenant " + tenant.id);
+        }
+        // Permits are interchangeable: whatever is above the slice counts as borrowed, so the top one goes back
+        if (before > tenant.reserved) {
+            borrowed.decrementAndGet();
+        } else {
+            sliceInUse.decrementAndGet();
+        }
+    }
+
+    // Shared pool = unreserved capacity + idle slices = capacity - everything in use
+    private boolean borrow() {
+        while (true) {
+            int current = borrowed.get();
+            if (current + sliceInUse.get() >= capacity) {
+                return false;
+            }
+            if (borrowed.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Permits in use, borrowed or not. Above capacity() while owners have reclaimed slices that were lent out.
+     */
+    public int inUse() {
+        return sliceInUse.get() + borrowed.get();
+    }
+
+    /**
+     * Permits that can still be borrowed right now (a tenant's own unused slice is always available to it).
+     */
+    public int available() {
+        return Math.max(0, capacity - inUse());
+    }
+
+    public int maxTenants() {
+        return maxTenants;
+    }
+
+    public int reservedTotal() {
+        return reservedTotal.get();
+    }
+
+    public List<Tenant> tenants() {
+        return new ArrayList<>(tenants.values());
+    }
+
+    /**
+     * 20 tenants share 40 permits with a slice of 2 each - the whole capacity is reserved, so a 21st tenant is
+     * rejected, and every permit the noisy tenant (48 threads) borrows is an idle slice of another tenant.
+     * Its borrow cap of 38 lets it take every permit; the 3 quiet tenants send a request now and then and are
+     * never rejected - they reclaim their slices, which takes the bulkhead briefly over capacity (the peak).
+     */
+    public static void main(String[] args) throws InterruptedException {
+        TenantBulkhead bulkhead = new TenantBulkhead(40, 2, 38);
+        for (int i = 0; i < bulkhead.maxTenants(); i++) {
+            bulkhead.tenant("tenant-" + i);
+        }
+        try {
+            bulkhead.tenant("tenant-" + bulkhead.maxTenants());
+        } catch (IllegalStateException e) {
+            System.out.println("Rejected: " + e.getMessage());
+        }
+
+        long end = System.nanoTime() + 2_000_000_000L;
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 48; t++) {
+            threads.add(new Thread(() -> callRepeatedly(bulkhead, bulkhead.tenant("tenant-0"), end, 0), "noisy-" + t));
+        }
+        for (int q = 1; q <= 3; q++) {
+            Tenant quiet = bulkhead.tenant("tenant-" + q);
+            threads.add(new Thread(() -> callRepeatedly(bulkhead, quiet, end, 20), "quiet-" + q));
+        }
+        threads.forEach(Thread::start);
+        int peakInUse = 0;
+        while (System.nanoTime() < end) {
+            peakInUse = Math.max(peakInUse, bulkhead.inUse());
+            Thread.sleep(1);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int i = 0; i <= 3; i++) {
+            Tenant tenant = bulkhead.tenant("tenant-" + i);
+            System.out.printf("%-10s reserved=%d acquired=%,8d rejected=%,10d inFlight=%d%n",
+                    tenant.id(), tenant.reserved(), tenant.acquired(), tenant.rejected(), tenant.inFlight());
+        }
+        System.out.println("Reserved: " + bulkhead.reservedTotal() + " of " + bulkhead.capacity()
+                + " by " + bulkhead.tenants().size() + " tenants");
+        System.out.println("Peak in use: " + peakInUse + " / " + bulkhead.capacity()
+                + ", in use at the end: " + bulkhead.inUse());
+    }
+
+    private static void callRepeatedly(TenantBulkhead bulkhead, Tenant tenant, long end, long pauseMillis) {
+        while (System.nanoTime() < end) {
+            if (bulkhead.tryAcquire(tenant)) {
+                try {
+                    Thread.sleep(5); // Simulate the tenant's request
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } finally {
+                    bulkhead.release(tenant);
+                }
+            } else {
+                Thread.yield(); // rejected - a real caller would fail fast here
+            }
+            if (pauseMillis > 0) {
+                try {
+                    Thread.sleep(pauseMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package multithreading.starvation.avoiding_strategy;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock between the two extremes of StarvationWithUnfairLock and FairLockExample: barging is allowed, but only
+ * up to a bound.
+ *
+ * Unfair ReentrantLock → a thread calling lock() just as the lock is released takes it ("barges") ahead of the
+ *                        queued waiters. Great throughput (no context switch per handoff), but a waiter can lose
+ *                        again and again - starvation.
+ * Fair ReentrantLock   → never barges: every release wakes the next waiter and the lock stays unused until that
+ *                        thread has been scheduled. No starvation, but a context switch per acquisition.
+ *
+ * ✅ Bounded unfairness:
+ * 1. lock() tries to barge first, exactly like the unfair lock.
+ * 2. Losers queue up FIFO; unlock() frees the lock and wakes the head of the queue, which competes with bargers.
+ * 3. Every barge that overtakes the head of the queue is counted against it. Once the head has been overtaken
+ *    maxBarges times, or has waited longer than maxWait, a HANDOFF is claimed for it: bargers stop barging, and
+ *    the next unlock() passes the lock straight to it without ever marking it free.
+ *
+ * The claim is made by whoever notices first: the next barger (it checks the head before barging, so the bound
+ * holds even while the starving thread isn't scheduled - which is exactly when it starves), or the head itself,
+ * which parks with its deadline as a timeout.
+ *
+ * So a waiter at the head of the queue gets the lock within maxWait (plus one critical section) or maxBarges
+ * releases, and one further back within that bound for each waiter ahead of it - while the common case keeps
+ * the throughput of the unfair lock.
+ *
+ * Not reentrant. unlock() by a thread that doesn't hold the lock throws IllegalMonitorStateException.
+ * An interrupt doesn't stop lock() (the flag is kept for the caller), lockInterruptibly() gives up instead.
+ */
+public class BoundedUnfairLock {
+
+    private static final int FREE = 0;
+    private static final int HELD = 1;
+
+    private final long maxWaitNanos;
+    private final int maxBarges;
+
+    private final AtomicInteger state = new AtomicInteger(FREE);
+    private final ConcurrentLinkedQueue<Waiter> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<Waiter> handoff = new AtomicReference<>(); // head waiter that ran out of patience
+    private Thread owner;               // written by the holder only, read by the holder in unlock()
+
+    private final LongAdder barges = new LongAdder();
+    private final LongAdder handoffs = new LongAdder();
+    private final LongAccumulator maxWaitSeen = new LongAccumulator(Math::max, 0);
+
+    Runnable beforeClaim; // stress test only (set before the threads start): runs between a barger's peek() and its claim
+
+    private static final class Waiter {
+        final Thread thread = Thread.currentThread();
+        final long enqueuedAt = System.nanoTime();
+        volatile boolean granted;   // set by unlock() on a handoff: the lock is ours, state stays HELD
+        volatile int bargedOver;    // incremented by bargers while they hold the lock
+    }
+
+    public BoundedUnfairLock(long maxWait, TimeUnit unit, int maxBarges) {
+        if (maxWait <= 0 || maxBarges <= 0) {
+            throw new IllegalArgumentException("maxWait and maxBarges must be positive");
+        }
+        this.maxWaitNanos = unit.toNanos(maxWait);
+        this.maxBarges = maxBarges;
+    }
+
+    public void lock() {
+        if (tryLock()) {
+            return;
+        }
+        if (acquireQueued(false) == ACQUIRED_INTERRUPTED) {
+            Thread.currentThread().interrupt(); // not ours to swallow: restore it for the caller, like AQS
+        }
+    }
+
+    /**
+     * Like lock(), but an interrupt while queued gives up the place in the queue and throws InterruptedException.
+     * If the lock was handed to us at that very moment we keep it and return with the interrupt flag set.
+     */
+    public void lockInterruptibly() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (tryLock()) {
+            return;
+        }
+        int result = acquireQueued(true);
+        if (result == CANCELLED) {
+            throw new InterruptedException();
+        }
+        if (result == ACQUIRED_INTERRUPTED) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final int ACQUIRED = 0;
+    private static final int ACQUIRED_INTERRUPTED = 1;
+    private static final int CANCELLED = 2;
+
+    private int acquireQueued(boolean interruptible) {
+        Waiter me = new Waiter();
+        queue.add(me);
+        long deadline = me.enqueuedAt + maxWaitNanos;
+        boolean interrupted = false;
+        while (!me.granted) {
+            if (queue.peek() == me) {
+                Waiter pending = handoff.get();
+                if (pending != null && pending != me && !queue.contains(pending)) {
+                    // Stale claim for a waiter that left before it was written: nobody else would ever clear it
+                    handoff.compareAndSet(pending, null);
+                    continue;
+                }
+                if ((pending == null || pending == me) && state.compareAndSet(FREE, HELD)) {
+                    queue.remove(me);
+                    break;
+                }
+                if (pending == null && isStarving(me) && claimHandoff(me)) {
+                    // From now on the lock is passed to us, bargers have to queue. unlock() may have freed the
+                    // lock before it could see the claim → take it ourselves
+                    if (state.compareAndSet(FREE, HELD)) {
+                        queue.remove(me);
+                        break;
+                    }
+                }
+                long remaining = deadline - System.nanoTime();
+                if (handoff.get() == me || remaining <= 0) {
+                    LockSupport.park(this);
+                } else {
+                    LockSupport.parkNanos(this, remaining);
+                }
+            } else {
+                LockSupport.park(this); // not our turn yet, the release before ours wakes us
+            }
+            // park() returns at once while the flag is set: clear it, or an interrupted waiter spins at 100% CPU
+            if (Thread.interrupted()) {
+                interrupted = true;
+                if (interruptible && cancel(me)) {
+                    return CANCELLED;
+                }
+            }
+        }
+        // We own the lock; a claim we made (possibly re-made while unlock() was granting) must not outlive us
+        handoff.compareAndSet(me, null);
+        acquired(me.enqueuedAt);
+        return interrupted ? ACQUIRED_INTERRUPTED : ACQUIRED;
+    }
+
+    // Leaves the queue - unless unlock() already took us out to hand us the lock, then we have to take it
+    private boolean cancel(Waiter me) {
+        if (!queue.remove(me)) {
+            return false;
+        }
+        handoff.compareAndSet(me, null);
+        Waiter head = queue.peek();
+        if (head != null) {
+            LockSupport.unpark(head.thread); // we may have been the head: let the next one compete
+        }
+        return true;
+    }
+
+    /**
+     * Barges: takes the lock if it is free right now, unless the head of the queue has been overtaken often
+     * enough or waited long enough - then claims the handoff for it instead and fails.
+     *
+     * The head we peeked may take the lock (or give up) before our claim lands. It clears its own claim only
+     * AFTER leaving the queue, so claiming first and then checking that it is still queued catches every such
+     * case: a claim for a waiter that is gone is withdrawn again, and we try once more.
+     */
+    public boolean tryLock() {
+        while (true) {
+            if (handoff.get() != null) {
+                return false;
+            }
+            Waiter head = queue.peek();
+            if (head != null && isStarving(head)) {
+                Runnable hook = beforeClaim;
+                if (hook != null) {
+                    hook.run();
+                }
+                if (claimHandoff(head) && !queue.contains(head)) {
+                    if (handoff.compareAndSet(head, null)) {
+                        handoffs.decrement(); // never handed over
+                    }
+                    continue;
+                }
+                if (state.get() == FREE) {
+                    LockSupport.unpark(head.thread); // nobody holds the lock to pass it on → the head takes it itself
+                }
+                return false;
+            }
+            return barge(head);
+        }
+    }
+
+    private boolean barge(Waiter head) {
+        if (state.get() == FREE && state.compareAndSet(FREE, HELD)) {
+            if (head != null) {
+                head.bargedOver++; // we hold the lock, so increments by bargers don't race
+                barges.increment();
+            }
+            owner = Thread.currentThread();
+            return true;
+        }
+        return false;
+    }
+
+    private boolean claimHandoff(Waiter waiter) {
+        if (handoff.compareAndSet(null, waiter)) {
+            handoffs.increment();
+            return true;
+        }
+        return false;
+    }
+
+    private boolean isStarving(Waiter waiter) {
+        return waiter.bargedOver >= maxBarges || System.nanoTime() - waiter.enqueuedAt >= maxWaitNanos;
+    }
+
+    private void acquired(long waitingSince) {
+        owner = Thread.currentThread();
+        maxWaitSeen.accumulate(System.nanoTime() - waitingSince);
+    }
+
+    public void unlock() {
+        if (owner != Thread.currentThread() || state.get() != HELD) {
+            throw new IllegalMonitorStateException("BoundedUnfairLock is not held by " + Thread.currentThread().getName());
+        }
+        owner = null;
+        Waiter next = handoff.get();
+        if (next != null && queue.remove(next)) {
+            // Direct handoff: the lock is never FREE, so no barger can slip in between
+            handoff.compareAndSet(next, null);
+            next.granted = true;
+            LockSupport.unpark(next.thread);
+            return;
+        }
+        if (next != null) {
+            handoff.compareAndSet(next, null); // stale claim: that waiter got the lock some other way meanwhile
+        }
+        state.set(FREE);
+        Waiter head = queue.peek();
+        if (head != null) {
+            LockSupport.unpark(head.thread);
+        }
+    }
+
+    public boolean isLocked() {
+        return state.get() == HELD;
+    }
+
+    public int queueLength() {
+        return queue.size();
+    }
+
+    /**
+     * Acquisitions that overtook a queued waiter.
+     */
+    public long barges() {
+        return barges.sum();
+    }
+
+    /**
+     * Times a waiter hit maxWait or maxBarges and a handoff was claimed for it.
+     */
+    public long handoffs() {
+        return handoffs.sum();
+    }
+
+    /**
+     * Longest time a queued thread waited for the lock (bargers that got it at once aren't counted).
+     */
+    public long maxWaitNanos() {
+        return maxWaitSeen.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BoundedUnfairLock[maxWait=%,dns maxBarges=%d barges=%,d handoffs=%,d maxWaitSeen=%,dns]",
+                maxWaitNanos, maxBarges, barges(), handoffs(), maxWaitNanos());
+    }
+}
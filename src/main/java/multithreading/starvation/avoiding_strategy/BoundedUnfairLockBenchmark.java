@@ -0,0 +1,95 @@
+package multithreading.starvation.avoiding_strategy;
+
+import multithreading.benchmark.BenchmarkHarness;
+import multithreading.metrics.LogLinearHistogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Throughput vs. worst-case wait: unfair ReentrantLock, fair ReentrantLock and BoundedUnfairLock.
+ *
+ * Every thread re-acquires the lock right after releasing it - the GreedyThread of StarvationWithUnfairLock,
+ * times N. The lock() call is timed on every acquisition, so "max wait" is what the unluckiest caller saw.
+ *
+ * Usage: BoundedUnfairLockBenchmark [millisPerRun] [maxWaitMicros] [maxBarges]
+ */
+public class BoundedUnfairLockBenchmark {
+
+    private static long counter;
+
+    interface Guard {
+        void lock();
+
+        void unlock();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        long maxWaitMicros = args.length > 1 ? Long.parseLong(args[1]) : 500;
+        int maxBarges = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        int maxThreads = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+
+        System.out.printf("%-22s %8s %14s %14s %14s %14s %14s%n", "lock", "threads", "ops/sec", "p50 wait", "p99 wait", "p99.9 wait", "max wait");
+        for (int threads = 2; threads <= maxThreads; threads *= 2) {
+            for (String name : new String[]{"ReentrantLock(false)", "ReentrantLock(true)", "BoundedUnfairLock"}) {
+                BoundedUnfairLock bounded = new BoundedUnfairLock(maxWaitMicros, TimeUnit.MICROSECONDS, maxBarges);
+                Guard guard = create(name, bounded);
+                run(guard, threads, millis / 5, newWaitHistogram()); // warm-up
+                LogLinearHistogram waits = newWaitHistogram();
+                long opsPerSec = run(guard, threads, millis, waits);
+                LogLinearHistogram.Snapshot snapshot = waits.snapshot();
+                System.out.printf("%-22s %8d %,14d %,12dns %,12dns %,12dns %,12dns%n", name, threads, opsPerSec,
+                        snapshot.percentile(50), snapshot.percentile(99), snapshot.percentile(99.9), snapshot.max());
+                if (name.equals("BoundedUnfairLock")) {
+                    System.out.println("    " + bounded);
+                }
+            }
+            System.out.println();
+        }
+    }
+
+    private static LogLinearHistogram newWaitHistogram() {
+        return LogLinearHistogram.forLatencies(10, TimeUnit.SECONDS, 2);
+    }
+
+    private static Guard create(String name, BoundedUnfairLock bounded) {
+        if (name.equals("BoundedUnfairLock")) {
+            return new Guard() {
+                public void lock() {
+                    bounded.lock();
+                }
+
+                public void unlock() {
+                    bounded.unlock();
+                }
+            };
+        }
+        ReentrantLock lock = new ReentrantLock(name.contains("true"));
+        return new Guard() {
+            public void lock() {
+                lock.lock();
+            }
+
+            public void unlock() {
+                lock.unlock();
+            }
+        };
+    }
+
+    private static long run(Guard guard, int threads, long millis, LogLinearHistogram waits) throws InterruptedException {
+        return BenchmarkHarness.run(threads, millis, index -> () -> {
+            for (int i = 0; i < BenchmarkHarness.BATCH_SIZE; i++) {
+                long start = System.nanoTime();
+                guard.lock();
+                try {
+                    waits.record(System.nanoTime() - start);
+                    counter++;
+                } finally {
+                    guard.unlock();
+                }
+            }
+            return BenchmarkHarness.BATCH_SIZE;
+        }).perSecond();
+    }
+}
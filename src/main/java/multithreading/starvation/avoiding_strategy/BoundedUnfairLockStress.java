@@ -0,0 +1,106 @@
+package multithreading.starvation.avoiding_strategy;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Stress test for the stale-handoff race of BoundedUnfairLock.
+ *
+ * A barger peeks a starving head W and is preempted before it claims the handoff. Meanwhile W takes the lock
+ * (or gives up in lockInterruptibly()) and leaves the queue - then the barger's claim lands for a thread that
+ * isn't queued anymore. If nobody withdrew that claim, every tryLock() would fail and the new head would never
+ * take the free lock: all threads park forever.
+ *
+ * The beforeClaim hook forces that preemption: every 4th claim sleeps 200µs between peek() and claim. maxWait
+ * and maxBarges are tiny so heads starve all the time. Half of the threads use lockInterruptibly() and get
+ * interrupted at random. A watchdog fails the run if no thread made progress for 2 seconds; the counter checks
+ * mutual exclusion.
+ *
+ * Usage: BoundedUnfairLockStress [seconds] [threads]
+ */
+public class BoundedUnfairLockStress {
+
+    private static long counter; // guarded by the lock
+
+    public static void main(String[] args) throws InterruptedException {
+        long seconds = args.length > 0 ? Long.parseLong(args[0]) : 5;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+
+        BoundedUnfairLock lock = new BoundedUnfairLock(20, TimeUnit.MICROSECONDS, 1);
+        lock.beforeClaim = () -> {
+            if (ThreadLocalRandom.current().nextInt(4) == 0) {
+                LockSupport.parkNanos(200_000);
+            }
+        };
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder acquisitions = new LongAdder();
+        LongAdder cancelled = new LongAdder();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            boolean interruptible = t % 2 == 1;
+            workers[t] = new Thread(() -> {
+                while (running.get()) {
+                    try {
+                        if (interruptible) {
+                            lock.lockInterruptibly();
+                        } else {
+                            lock.lock();
+                        }
+                    } catch (InterruptedException e) {
+                        cancelled.increment();
+                        continue;
+                    }
+                    try {
+                        counter++;
+                    } finally {
+                        lock.unlock();
+                    }
+                    acquisitions.increment();
+                    Thread.interrupted(); // an interrupt that came too late to cancel: don't carry it over
+                }
+            }, (interruptible ? "interruptible-" : "worker-") + t);
+            workers[t].setDaemon(true); // a hung run must not keep the JVM alive
+            workers[t].start();
+        }
+
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        long lastCount = -1;
+        long lastProgress = System.nanoTime();
+        while (System.nanoTime() < end) {
+            Thread.sleep(1);
+            for (int t = 1; t < threads; t += 2) {
+                if (ThreadLocalRandom.current().nextInt(8) == 0) {
+                    workers[t].interrupt();
+                }
+            }
+            long count = acquisitions.sum();
+            if (count != lastCount) {
+                lastCount = count;
+                lastProgress = System.nanoTime();
+            } else if (System.nanoTime() - lastProgress > TimeUnit.SECONDS.toNanos(2)) {
+                System.out.printf("HUNG after %,d acquisitions: locked=%b queued=%d %s%n",
+                        count, lock.isLocked(), lock.queueLength(), lock);
+                System.exit(1);
+            }
+        }
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+            if (worker.isAlive()) {
+                System.out.println("HUNG on shutdown: " + worker.getName() + " " + lock);
+                System.exit(1);
+            }
+        }
+
+        long total = acquisitions.sum();
+        System.out.printf("OK: %,d acquisitions (counter=%,d), %,d cancelled, %s%n", total, counter, cancelled.sum(), lock);
+        if (counter != total) {
+            throw new IllegalStateException("Lost updates: counter=" + counter + ", acquisitions=" + total);
+        }
+    }
+}
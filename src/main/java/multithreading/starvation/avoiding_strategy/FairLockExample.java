@@ -1,5 +1,9 @@
 package multithreading.starvation.avoiding_strategy;
 
+import multithreading.instrumented_locks.InstrumentedLock;
+import multithreading.instrumented_locks.LockInstrumentation;
+
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 public class FairLockExample {
@@ -8,9 +12,10 @@ public class FairLockExample {
      * ReentrantLock(true) ensures that threads get lock access in the order they requested it (FIFO) — preventing starvation.
      * Note: The "true" in Lock creation ....
      */
-    private static final ReentrantLock lock = new ReentrantLock(true); // fair lock
+    private static final Lock lock = new InstrumentedLock("FairLockExample.lock", new ReentrantLock(true)); // fair lock, measured
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException {
+        LockInstrumentation.enable();
         Runnable task = () -> {
             while (true) {
                 lock.lock();
@@ -31,5 +36,11 @@ public class FairLockExample {
         t1.start();
         t2.start();
         t3.start();
+
+        // With a fair lock every thread waits about as long as the others: compare p99 wait with the hold time
+        while (true) {
+            Thread.sleep(2_000);
+            System.out.print(LockInstrumentation.topContended(1));
+        }
     }
 }
@@ -0,0 +1,116 @@
+package multithreading.thread_safe_singleton;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * EnumSingletonConfigManager reloading while 4 threads read it as fast as they can.
+ *
+ * The file is rewritten 5 times (write to a temp file + atomic rename, like most editors and deploy tools).
+ * Shows: every change reaches the listener, readers never see a torn snapshot (pool.size and pool.name are
+ * always written together), the slowest single read, and the bytes a reader allocated per read.
+ * Finally a half written file (written in place, cut off before its config.end line) is rejected.
+ * (On a machine with fewer cores than threads the slowest read is a preemption, not a wait for the reload.)
+ */
+public class ConfigHotReloadDemo {
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("config-demo");
+        Path file = dir.resolve("application.properties");
+        write(file, 0);
+        System.setProperty("config.file", file.toString()); // before INSTANCE is first touched
+
+        EnumSingletonConfigManager config = EnumSingletonConfigManager.INSTANCE;
+        AtomicInteger changes = new AtomicInteger();
+        CountDownLatch allChanges = new CountDownLatch(5);
+        config.addListener((previous, current) -> {
+            changes.incrementAndGet();
+            System.out.printf("Reloaded v%d → v%d, changed: %s, pool.size=%d, timeout=%s, hosts=%s%n",
+                    previous.version(), current.version(), current.changedKeys(previous),
+                    current.getInt("pool.size", -1), current.getDuration("request.timeout", null), current.getList("hosts"));
+            allChanges.countDown();
+        });
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger torn = new AtomicInteger();
+        long[] maxReadNanos = new long[4];
+        long[] reads = new long[4];
+        long[] allocated = new long[4];
+        Thread[] readers = new Thread[4];
+        for (int t = 0; t < readers.length; t++) {
+            final int id = t;
+            readers[t] = new Thread(() -> {
+                com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+                long n = 0;
+                long slowest = 0;
+                long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+                while (running.get()) {
+                    for (int i = 0; i < 1024; i++) {
+                        long start = System.nanoTime();
+                        ConfigSnapshot snapshot = config.snapshot();
+                        int size = snapshot.getInt("pool.size", -1);
+                        String name = snapshot.getString("pool.name");
+                        Duration timeout = snapshot.getDuration("request.timeout", Duration.ZERO);
+                        long elapsed = System.nanoTime() - start;
+                        if (Integer.parseInt(name, 5, name.length(), 10) != size || timeout.isZero()) { // "pool-<size>", no garbage
+                            torn.incrementAndGet();
+                        }
+                        slowest = Math.max(slowest, elapsed);
+                    }
+                    n += 1024;
+                }
+                allocated[id] = threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+                maxReadNanos[id] = slowest;
+                reads[id] = n;
+            }, "reader-" + t);
+            readers[t].start();
+        }
+
+        for (int version = 1; version <= 5; version++) {
+            Thread.sleep(300);
+            write(file, version);
+        }
+        boolean allSeen = allChanges.await(10, TimeUnit.SECONDS);
+
+        Files.writeString(file, "pool.size=99\n"); // in place and cut off: no pool.name, no end marker
+        Thread.sleep(300);
+        boolean truncatedRejected = config.getInt("pool.size", -1) == 15 && changes.get() == 5;
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        config.stopWatching();
+
+        long totalReads = 0;
+        long totalAllocated = 0;
+        long slowest = 0;
+        for (int t = 0; t < readers.length; t++) {
+            totalReads += reads[t];
+            totalAllocated += allocated[t];
+            slowest = Math.max(slowest, maxReadNanos[t]);
+        }
+        System.out.printf("%nChanges seen by the listener: %d/5%s%n", changes.get(), allSeen ? "" : " (timed out)");
+        System.out.printf("Reads: %,d, torn snapshots: %d, slowest read: %,dns, allocated: %.3f bytes/read%n",
+                totalReads, torn.get(), slowest, (double) totalAllocated / totalReads);
+        System.out.println("Truncated file " + (truncatedRejected ? "rejected, pool.size still 15" : "PUBLISHED"));
+    }
+
+    private static void write(Path file, int version) throws Exception {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        String content = "pool.size=" + (10 + version) + "\n"
+                + "pool.name=pool-" + (10 + version) + "\n"
+                + "request.timeout=" + (500 + version * 100) + "ms\n"
+                + "hosts=db-1, db-2" + (version % 2 == 0 ? "" : ", db-3") + "\n"
+                + "db.host=localhost\n"
+                + EnumSingletonConfigManager.END_MARKER + "=true\n";
+        Files.writeString(tmp, content);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,222 @@
+package multithreading.thread_safe_singleton;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One immutable, fully parsed version of the configuration.
+ *
+ * Every value is parsed ONCE, when the snapshot is built (on the reload thread): as an int and a long if it
+ * is a number, a boolean if it is true/false, a Duration if it looks like one ("500ms", "30s", "5m", "PT10S"),
+ * and as a comma-separated list. The typed getters are then just a HashMap lookup - no parsing, no locking and
+ * no allocation on the request path (the boxed Integers/Longs are stored, unboxing them allocates nothing).
+ *
+ * Asking for a type a value couldn't be parsed as (getInt on "abc") is an IllegalArgumentException, naming
+ * the key and the value - a typo in the file surfaces at the first use instead of as a silent default.
+ */
+public final class ConfigSnapshot {
+
+    private static final Pattern DURATION = Pattern.compile("(\\d+)\\s*(ns|us|ms|s|m|h|d)");
+
+    private final long version;
+    private final Map<String, String> strings;
+    private final Map<String, Integer> ints = new HashMap<>();
+    private final Map<String, Long> longs = new HashMap<>();
+    private final Map<String, Boolean> booleans = new HashMap<>();
+    private final Map<String, Duration> durations = new HashMap<>();
+    private final Map<String, List<String>> lists = new HashMap<>();
+
+    private ConfigSnapshot(Map<String, String> values, long version) {
+        this.version = version;
+        this.strings = Collections.unmodifiableMap(new HashMap<>(values));
+        for (Map.Entry<String, String> entry : strings.entrySet()) {
+            String key = entry.getKey();
+            String value = entry.getValue().trim();
+            try {
+                long number = Long.parseLong(value);
+                longs.put(key, number);
+                if (number == (int) number) {
+                    ints.put(key, (int) number);
+                }
+            } catch (NumberFormatException notANumber) {
+                // not a number - fine, most values aren't
+            }
+            if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")) {
+                booleans.put(key, Boolean.valueOf(value));
+            }
+            Duration duration = parseDuration(value);
+            if (duration != null) {
+                durations.put(key, duration);
+            }
+            lists.put(key, parseList(value));
+        }
+    }
+
+    public static ConfigSnapshot of(Properties properties, long version) {
+        Map<String, String> values = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            values.put(key, properties.getProperty(key));
+        }
+        return new ConfigSnapshot(values, version);
+    }
+
+    public static ConfigSnapshot empty() {
+        return new ConfigSnapshot(Collections.emptyMap(), 0);
+    }
+
+    private static Duration parseDuration(String value) {
+        Matcher matcher = DURATION.matcher(value);
+        if (matcher.matches()) {
+            long amount;
+            try {
+                amount = Long.parseLong(matcher.group(1));
+            } catch (NumberFormatException tooBig) {
+                return null;
+            }
+            switch (matcher.group(2)) {
+                case "ns":
+                    return Duration.ofNanos(amount);
+                case "us":
+                    return Duration.ofNanos(amount * 1_000);
+                case "ms":
+                    return Duration.ofMillis(amount);
+                case "s":
+                    return Duration.ofSeconds(amount);
+                case "m":
+                    return Duration.ofMinutes(amount);
+                case "h":
+                    return Duration.ofHours(amount);
+                default:
+                    return Duration.ofDays(amount);
+            }
+        }
+        if (value.startsWith("P") || value.startsWith("p")) {
+            try {
+                return Duration.parse(value); // ISO-8601, e.g. PT30S
+            } catch (DateTimeParseException notIso) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static List<String> parseList(String value) {
+        List<String> items = new ArrayList<>();
+        for (String item : value.split(",")) {
+            String trimmed = item.trim();
+            if (!trimmed.isEmpty()) {
+                items.add(trimmed);
+            }
+        }
+        return Collections.unmodifiableList(items);
+    }
+
+    /**
+     * Increases by one with every reload that changed something.
+     */
+    public long version() {
+        return version;
+    }
+
+    public String getString(String key) {
+        return strings.get(key);
+    }
+
+    public String getString(String key, String defaultValue) {
+        String value = strings.get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        Integer value = ints.get(key);
+        if (value != null) {
+            return value;
+        }
+        checkNotMalformed(key, "an int");
+        return defaultValue;
+    }
+
+    public long getLong(String key, long defaultValue) {
+        Long value = longs.get(key);
+        if (value != null) {
+            return value;
+        }
+        checkNotMalformed(key, "a long");
+        return defaultValue;
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Boolean value = booleans.get(key);
+        if (value != null) {
+            return value;
+        }
+        checkNotMalformed(key, "a boolean");
+        return defaultValue;
+    }
+
+    public Duration getDuration(String key, Duration defaultValue) {
+        Duration value = durations.get(key);
+        if (value != null) {
+            return value;
+        }
+        checkNotMalformed(key, "a duration");
+        return defaultValue;
+    }
+
+    /**
+     * Comma-separated values, trimmed, empty items dropped. Unknown key → empty list.
+     */
+    public List<String> getList(String key) {
+        List<String> value = lists.get(key);
+        return value != null ? value : Collections.emptyList();
+    }
+
+    // Only the default when the key is absent - a value of the wrong type is an error
+    private void checkNotMalformed(String key, String type) {
+        String raw = strings.get(key);
+        if (raw != null) {
+            throw new IllegalArgumentException("Config " + key + "=" + raw + " is not " + type);
+        }
+    }
+
+    public Set<String> keys() {
+        return strings.keySet();
+    }
+
+    /**
+     * Keys added, removed or changed between this snapshot and another one.
+     */
+    public Set<String> changedKeys(ConfigSnapshot other) {
+        Set<String> changed = new HashSet<>();
+        for (String key : strings.keySet()) {
+            if (!strings.get(key).equals(other.strings.get(key))) {
+                changed.add(key);
+            }
+        }
+        for (String key : other.strings.keySet()) {
+            if (!strings.containsKey(key)) {
+                changed.add(key);
+            }
+        }
+        return changed;
+    }
+
+    boolean sameValues(ConfigSnapshot other) {
+        return strings.equals(other.strings);
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigSnapshot[version=" + version + ", " + strings.size() + " keys]";
+    }
+}
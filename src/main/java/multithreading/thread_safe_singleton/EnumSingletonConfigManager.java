@@ -1,9 +1,22 @@
 package multithreading.thread_safe_singleton;
 
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public enum EnumSingletonConfigManager {
     INSTANCE;
@@ -13,25 +26,252 @@ public enum EnumSingletonConfigManager {
      * Enum guarantees only one instance, even during serialization or reflection attacks.
      *
      * JVM handles thread safety for enums.
+     *
+     * ✅ Hot reload without ever stalling a reader:
+     * 1. The whole configuration is ONE immutable ConfigSnapshot, every value already parsed (ints, durations,
+     *    lists ...). Readers do a single volatile read of `snapshot` and a map lookup - no lock, no parsing,
+     *    no allocation.
+     *
+     * 2. A daemon thread watches the file with a WatchService. On a change it builds the next snapshot - reading
+     *    and parsing happen on THAT thread, off the request path - and publishes it with one volatile write.
+     *    Readers see either the old snapshot or the new one, never a mix of both.
+     *
+     * 3. Listeners are told about the change afterwards, on the thread that reloaded (normally the watcher) and
+     *    after the reload lock is released, so a slow listener never holds up the next reload.
+     *
+     * A file that can't be read (deleted, malformed escape) keeps the previous snapshot in place.
+     *
+     * ⚠️ Properties.load() happily parses a TRUNCATED file - a file that is written in place (not to a temp file +
+     * rename) can be seen half written. So before publishing:
+     * - a file without any key never replaces a non-empty config;
+     * - once a file ended with the END_MARKER line (config.end=true), a file without it is taken as half written.
+     *   Put the marker last in files that are written in place; the next modify event reloads the complete file.
+     *
+     * The file is -Dconfig.file if set, else application.properties from the classpath (watched when it is a
+     * plain file), else ./application.properties.
+     */
+    private volatile ConfigSnapshot snapshot;
+
+    private static final String FILE_NAME = "application.properties";
+    private static final long DEBOUNCE_MILLIS = 50; // editors write a file in several steps, reload once
+    public static final String END_MARKER = "config.end";
+
+    /**
+     * Called on the reloading thread after a new snapshot was published, outside the reload lock.
      */
-    private Properties props;
+    public interface Listener {
+        void onChange(ConfigSnapshot previous, ConfigSnapshot current);
+    }
+
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final Object lock = new Object(); // private: INSTANCE's own monitor can be locked by anyone
+    private final Path file;
+    private WatchService watchService; // guarded by lock
 
     EnumSingletonConfigManager() {
-        props = new Properties();
-        try (InputStream input = getClass().getClassLoader().getResourceAsStream("application.properties")) {
+        file = locate();
+        snapshot = ConfigSnapshot.empty();
+        if (file == null) {
+            loadFromClasspath();
+            return;
+        }
+        if (!Files.exists(file)) {
+            System.out.println("Sorry, unable to find " + file + " (watching for it)");
+        } else {
+            reload();
+            System.out.println("Configs Loaded");
+        }
+        startWatching();
+    }
+
+    private static Path locate() {
+        String configured = System.getProperty("config.file");
+        if (configured != null) {
+            return Paths.get(configured);
+        }
+        URL resource = EnumSingletonConfigManager.class.getClassLoader().getResource(FILE_NAME);
+        if (resource != null) {
+            if (!"file".equals(resource.getProtocol())) {
+                return null; // inside a jar: can be read, but not watched
+            }
+            try {
+                return Paths.get(resource.toURI());
+            } catch (URISyntaxException e) {
+                return null;
+            }
+        }
+        return Paths.get(FILE_NAME);
+    }
+
+    private void loadFromClasspath() {
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream(FILE_NAME)) {
             if (input == null) {
-                System.out.println("Sorry, unable to find application.properties");
+                System.out.println("Sorry, unable to find " + FILE_NAME);
                 return;
             }
+            Properties props = new Properties();
             props.load(input);
+            snapshot = ConfigSnapshot.of(props, 1);
             System.out.println("Configs Loaded");
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * Re-reads the file now and publishes a new snapshot if anything changed and the file looks complete.
+     * Locked only against other reloads - readers never take this lock.
+     *
+     * @return true if a new snapshot was published
+     */
+    public boolean reload() {
+        if (file == null) {
+            return false;
+        }
+        ConfigSnapshot previous;
+        ConfigSnapshot next;
+        synchronized (lock) {
+            Properties props = new Properties();
+            try (InputStream input = Files.newInputStream(file)) {
+                props.load(input);
+            } catch (NoSuchFileException e) {
+                return false; // deleted, or being replaced right now - keep what we have
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Keeping the previous config, " + file + " could not be read: " + e);
+                return false;
+            }
+            previous = snapshot;
+            String incomplete = incomplete(props, previous);
+            if (incomplete != null) {
+                System.err.println("Keeping the previous config, " + file + " " + incomplete);
+                return false;
+            }
+            next = ConfigSnapshot.of(props, previous.version() + 1);
+            if (next.sameValues(previous)) {
+                return false; // touched, not changed
+            }
+            snapshot = next; // the one volatile write that switches every reader over
+        }
+        // Two quick reloads may notify in either order: compare current.version() if that matters
+        for (Listener listener : listeners) {
+            try {
+                listener.onChange(previous, next);
+            } catch (RuntimeException e) {
+                e.printStackTrace(); // one broken listener must not stop the others
+            }
+        }
+        return true;
+    }
+
+    // Why the loaded properties look like a half written file, or null if they look complete
+    private static String incomplete(Properties props, ConfigSnapshot previous) {
+        if (props.isEmpty() && !previous.keys().isEmpty()) {
+            return "is empty (being written?)";
+        }
+        if (!props.containsKey(END_MARKER) && previous.keys().contains(END_MARKER)) {
+            return "has no " + END_MARKER + " line (being written?)";
+        }
+        return null;
+    }
+
+    private void startWatching() {
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir == null || !Files.isDirectory(dir)) {
+            return;
+        }
+        WatchService service;
+        try {
+            service = dir.getFileSystem().newWatchService();
+            dir.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            System.err.println("Config changes won't be picked up, can't watch " + dir + ": " + e);
+            return;
+        }
+        watchService = service;
+        Thread watcher = new Thread(() -> watchLoop(service), "config-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private void watchLoop(WatchService service) {
+        Path name = file.getFileName();
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean relevant = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    // OVERFLOW: events were dropped, ours may be among them
+                    relevant |= event.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(event.context());
+                }
+                key.reset();
+                if (relevant) {
+                    Thread.sleep(DEBOUNCE_MILLIS);
+                    WatchKey more;
+                    while ((more = service.poll()) != null) { // the rest of the same save
+                        more.pollEvents();
+                        more.reset();
+                    }
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // stopWatching()
+        }
+    }
+
+    /**
+     * Stops the watcher thread; the current snapshot stays in place.
+     */
+    public void stopWatching() {
+        synchronized (lock) {
+            if (watchService != null) {
+                try {
+                    watchService.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+                watchService = null;
+            }
+        }
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * The current snapshot. Read several keys from ONE snapshot when they must be consistent with each other.
+     */
+    public ConfigSnapshot snapshot() {
+        return snapshot;
+    }
+
     public String getProperty(String key) {
-        return props.getProperty(key);
+        return snapshot.getString(key);
+    }
+
+    public int getInt(String key, int defaultValue) {
+        return snapshot.getInt(key, defaultValue);
+    }
+
+    public long getLong(String key, long defaultValue) {
+        return snapshot.getLong(key, defaultValue);
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        return snapshot.getBoolean(key, defaultValue);
+    }
+
+    public Duration getDuration(String key, Duration defaultValue) {
+        return snapshot.getDuration(key, defaultValue);
+    }
+
+    public List<String> getList(String key) {
+        return snapshot.getList(key);
     }
 
     public static void main(String[] args) {
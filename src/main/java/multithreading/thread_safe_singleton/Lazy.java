@@ -0,0 +1,92 @@
+package multithreading.thread_safe_singleton;
+
+import java.util.function.Supplier;
+
+/**
+ * A lazily initialized value, generic: what DoubleCheckedSingleton, BillPughSingletonLogger and
+ * SynchronizedSingleton each hand-code for one class.
+ *
+ *     private static final Lazy<ExpensiveService> SERVICE = Lazy.of(ExpensiveService::new);
+ *     ...
+ *     SERVICE.get();
+ *
+ * ✅ Exactly once: the supplier runs under this Lazy's own monitor (never a class-wide lock), so concurrent
+ * first callers wait for the one initializing thread and then all see the same instance. If the supplier
+ * throws, nothing is cached and the next get() tries again.
+ *
+ * ✅ Plain read once initialized (cheaper than DoubleCheckedSingleton's volatile read):
+ * The value is published inside a Holder whose field is FINAL. The Java memory model guarantees that a thread
+ * seeing a Holder reference - even through a plain, racy read - also sees its final field fully constructed.
+ * So the fast path is two plain loads:
+ *
+ *     Holder h = holder;           // plain read, may be stale (null) for a while on other threads
+ *     if (h != null) return h.value;
+ *
+ * A stale null only sends a thread to the slow path once: the monitor makes the published Holder visible.
+ * (String.hashCode() caches its hash with the same kind of benign race.)
+ *
+ * BillPughSingletonLogger's holder class is just as cheap, but needs one class per singleton and can't be
+ * created at runtime, per key (see LazyRegistry) or reset.
+ */
+public final class Lazy<T> implements Supplier<T> {
+
+    private static final class Holder<T> {
+        final T value;
+
+        Holder(T value) {
+            this.value = value;
+        }
+    }
+
+    private Supplier<? extends T> supplier;   // dropped after initialization, guarded by this
+    private Holder<T> holder;                 // deliberately not volatile, see above
+
+    private Lazy(Supplier<? extends T> supplier) {
+        this.supplier = supplier;
+    }
+
+    public static <T> Lazy<T> of(Supplier<? extends T> supplier) {
+        if (supplier == null) {
+            throw new NullPointerException("supplier");
+        }
+        return new Lazy<>(supplier);
+    }
+
+    @Override
+    public T get() {
+        Holder<T> h = holder;
+        if (h != null) {
+            return h.value;
+        }
+        return initialize();
+    }
+
+    private synchronized T initialize() {
+        Holder<T> h = holder;
+        if (h == null) {
+            T value = supplier.get();
+            h = new Holder<>(value);
+            holder = h;
+            supplier = null; // let the supplier (and everything it captured) be garbage collected
+        }
+        return h.value;
+    }
+
+    /**
+     * True once get() returned a value; never triggers the initialization.
+     */
+    public boolean isInitialized() {
+        if (holder != null) {
+            return true;
+        }
+        synchronized (this) {
+            return holder != null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        Holder<T> h = holder;
+        return h != null ? "Lazy[" + h.value + "]" : "Lazy[not initialized]";
+    }
+}
@@ -0,0 +1,95 @@
+package multithreading.thread_safe_singleton;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * One lazy singleton PER KEY (a connection pool per database, a parser per schema ...), each initialized
+ * exactly once, without one slow initialization holding up the others.
+ *
+ * The obvious version,
+ *
+ *     map.computeIfAbsent(key, k -> expensiveInit(k))
+ *
+ * runs expensiveInit INSIDE ConcurrentHashMap's lock for the hash bin - every other key that happens to share
+ * the bin waits for it, and expensiveInit must not touch the map itself (recursive update → exception).
+ *
+ * ✅ Two steps instead:
+ * 1. computeIfAbsent only installs a cheap, not yet initialized Lazy for the key (nanoseconds under the bin lock).
+ * 2. Lazy.get() runs the factory under THAT Lazy's monitor, outside the map. Callers for the same key wait for
+ *    it; callers for any other key don't even notice.
+ *
+ * ✅ Fast path once initialized: a lock-free ConcurrentHashMap.get() plus Lazy's plain read. Callers that use a
+ * key over and over can keep the handle from lazy(key), and pay only the plain read.
+ */
+public class LazyRegistry<K, T> {
+
+    private final ConcurrentHashMap<K, Lazy<T>> values = new ConcurrentHashMap<>();
+    private final Function<? super K, ? extends T> factory;
+
+    public LazyRegistry(Function<? super K, ? extends T> factory) {
+        this.factory = factory;
+    }
+
+    public T get(K key) {
+        return lazy(key).get();
+    }
+
+    /**
+     * The handle for a key - cache it in a (static final) field to skip the map lookup from then on.
+     */
+    public Lazy<T> lazy(K key) {
+        Lazy<T> lazy = values.get(key);
+        if (lazy == null) {
+            lazy = values.computeIfAbsent(key, k -> Lazy.of(() -> factory.apply(k)));
+        }
+        return lazy;
+    }
+
+    public boolean isInitialized(K key) {
+        Lazy<T> lazy = values.get(key);
+        return lazy != null && lazy.isInitialized();
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * "slow" takes 2 seconds to initialize; "fast" is requested meanwhile and must not wait for it.
+     * 8 threads race for "slow": the factory still runs once.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        AtomicInteger factoryCalls = new AtomicInteger();
+        LazyRegistry<String, String> registry = new LazyRegistry<>(key -> {
+            factoryCalls.incrementAndGet();
+            if (key.equals("slow")) {
+                try {
+                    Thread.sleep(2000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return key.toUpperCase() + "@" + Thread.currentThread().getName();
+        });
+
+        CountDownLatch done = new CountDownLatch(8);
+        long start = System.nanoTime();
+        for (int i = 0; i < 8; i++) {
+            new Thread(() -> {
+                registry.get("slow");
+                done.countDown();
+            }, "slow-" + i).start();
+        }
+        Thread.sleep(100); // the slow initialization is running now
+        String fast = registry.get("fast");
+        System.out.printf("get(\"fast\") = %s after %dms%n", fast, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        done.await();
+        System.out.printf("get(\"slow\") = %s after %dms%n", registry.get("slow"), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        System.out.println("Factory calls: " + factoryCalls.get() + " (one per key)");
+    }
+}